@@ -1,9 +1,13 @@
 package com.tourplanner.controller;
 
 import com.tourplanner.exception.AdminAccessDeniedException;
+import com.tourplanner.graphql.ClientAddressInterceptor;
 import com.tourplanner.security.JwtGenerator;
+import com.tourplanner.security.LoginRateLimiter;
+import com.tourplanner.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -11,6 +15,7 @@ import org.springframework.stereotype.Controller;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class AdminAuthController {
@@ -20,8 +25,21 @@ public class AdminAuthController {
     @Autowired
     private JwtGenerator jwtGenerator;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @MutationMapping
-    public Mono<Map<String, String>> loginAdmin(@Argument String email, @Argument String password) {
+    public Mono<Map<String, String>> loginAdmin(@Argument String email, @Argument String password,
+                                          @ContextValue(name = ClientAddressInterceptor.CLIENT_ADDRESS_KEY, required = false) String clientAddress) {
+        // Throttled attempts stop here, before the user lookup and the BCrypt match
+        long waitNanos = loginRateLimiter.tryAcquire(email, clientAddress);
+        if (waitNanos > 0) {
+            return Mono.just(Map.of("error", loginRateLimiter.throttledMessage(waitNanos)));
+        }
+
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email, password);
 
         return reactiveAuthenticationManager.authenticate(authToken)
@@ -35,7 +53,11 @@ public class AdminAuthController {
 
                     String token = jwtGenerator.generateToken(authentication, "ADMIN");
                     return Mono.just(Map.of("token", token));
-                }).onErrorResume(e ->
+                })
+                // Hashing pool saturated: the credentials were never checked, so don't call them invalid
+                .onErrorResume(RejectedExecutionException.class, e ->
+                        Mono.just(Map.of("error", passwordHashingExecutor.busy(e).getMessage())))
+                .onErrorResume(e ->
                         Mono.just(Map.of("error", "Invalid email or password")));
     }
 }
@@ -1,16 +1,21 @@
 package com.tourplanner.controller;
 
 import com.tourplanner.dto.AdminProfileDTO;
+import com.tourplanner.dto.Connection;
+import com.tourplanner.dto.DashboardStats;
 import com.tourplanner.dto.UserProfileDTO;
 import com.tourplanner.model.Booking;
+import com.tourplanner.model.DestinationCapacity;
 import com.tourplanner.model.Profile;
 import com.tourplanner.model.User;
 import com.tourplanner.service.AdminService;
+import com.tourplanner.service.BookingService;
 import com.tourplanner.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
@@ -18,11 +23,16 @@ import org.springframework.stereotype.Controller;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 @Controller
 public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private BookingService bookingService;
+
     @QueryMapping
     @PreAuthorize("hasRole('ADMIN')")
     public Mono<AdminProfileDTO> getCurrentAdminProfile() {
@@ -64,6 +74,18 @@ public class AdminController {
         return adminService.getAllAdmin();
     }
 
+    @QueryMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<Connection<AdminProfileDTO>> getUsers(@Argument Integer first, @Argument String after) {
+        return adminService.getUsersPage(first, after);
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<Connection<AdminProfileDTO>> getAdmins(@Argument Integer first, @Argument String after) {
+        return adminService.getAdminsPage(first, after);
+    }
+
     @QueryMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
     public Mono<Booking> getBookingById(@Argument Long bookingId) {
@@ -76,6 +98,19 @@ public class AdminController {
         return adminService.getAllBookings();
     }
 
+    @QueryMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<Connection<Booking>> bookings(@Argument Integer first, @Argument String after, @Argument String status,
+                                              @Argument String fromDate, @Argument String toDate, @Argument String destination) {
+        return bookingService.getBookingsPage(first, after, status, fromDate, toDate, destination);
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<DashboardStats> dashboardStats(@Argument Integer days) {
+        return adminService.getDashboardStats(days);
+    }
+
     @MutationMapping
     public Mono<Booking> updateUserBooking(@Argument Long bookingId, @Argument String status) {
         return adminService.updateUserBooking(bookingId, status);
@@ -92,4 +127,16 @@ public class AdminController {
     public Mono<String> deleteUserById(@Argument Long userId) {
         return adminService.deleteUserById(userId);
     }
+
+    @MutationMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<DestinationCapacity> setDestinationCapacity(@Argument String destination, @Argument LocalDate date, @Argument Integer capacity) {
+        return adminService.setDestinationCapacity(destination, date, capacity);
+    }
+
+    @SubscriptionMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<Booking> bookingCreated() {
+        return adminService.bookingCreations();
+    }
 }
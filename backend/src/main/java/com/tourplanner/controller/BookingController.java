@@ -1,15 +1,18 @@
 package com.tourplanner.controller;
 
 import com.tourplanner.dto.BookingDTO;
+import com.tourplanner.dto.PopularDestination;
 import com.tourplanner.repository.BookingRepository;
 import com.tourplanner.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Controller
@@ -20,12 +23,18 @@ public class BookingController {
 
     @MutationMapping
     @PreAuthorize("hasRole('USER')")
-    public Mono<BookingDTO> createBooking(@Argument BookingDTO bookingDTO) {
+    public Mono<BookingDTO> createBooking(@Argument BookingDTO bookingDTO, @Argument String idempotencyKey) {
         return ReactiveSecurityContextHolder.getContext()
                 .map(SecurityContext::getAuthentication)
                 .flatMap(authentication -> {
                     String email = authentication.getName();
-                    return bookingService.createBooking(bookingDTO, email);
+                    return bookingService.createBooking(bookingDTO, email, idempotencyKey);
                 });
     }
+
+    // Public, the home page shows it before anyone logs in
+    @QueryMapping
+    public Flux<PopularDestination> popularDestinations(@Argument Integer window, @Argument Integer k) {
+        return bookingService.getPopularDestinations(window, k);
+    }
 }
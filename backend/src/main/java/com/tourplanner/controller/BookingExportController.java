@@ -0,0 +1,93 @@
+package com.tourplanner.controller;
+
+import com.tourplanner.model.Booking;
+import com.tourplanner.service.AdminService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/*
+    Plain HTTP export next to the GraphQL API, GraphQL would collect the whole list into one response.
+    Bookings are written one line at a time as the database delivers them (NDJSON by default,
+    CSV with format=csv), and the database is only asked for more rows as the client reads.
+    Responses are gzip compressed when the client accepts it (server.compression.*).
+
+    GET /admin/bookings/export?status=CONFIRMED&fromDate=2025-01-01&toDate=2025-12-31&format=csv
+*/
+
+@RestController
+@RequestMapping("/admin/bookings")
+public class BookingExportController {
+    private static final int CSV_ROWS_PER_CHUNK = 256;
+    private static final int CSV_CHUNKS_IN_FLIGHT = 8;
+
+    static final String CSV_HEADER = "bookingId,userId,destination,rate,bookingDate,numberOfPeople,createdAt,status\n";
+
+    @Autowired
+    private AdminService adminService;
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<Booking> exportNdjson(@RequestParam(required = false) String status,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        validateRange(fromDate, toDate);
+        return adminService.exportBookings(status, fromDate, toDate);
+    }
+
+    @GetMapping(value = "/export", params = "format=csv", produces = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<String> exportCsv(@RequestParam(required = false) String status,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        validateRange(fromDate, toDate);
+        return Flux.concat(
+                Flux.just(CSV_HEADER),
+                adminService.exportBookings(status, fromDate, toDate)
+                        .map(BookingExportController::toCsvLine)
+                        // A few hundred rows per write instead of one, memory still stays bounded
+                        .buffer(CSV_ROWS_PER_CHUNK)
+                        .map(lines -> String.join("", lines))
+                        // Netty would otherwise prefetch 128 chunks, keep at most a few in flight
+                        .limitRate(CSV_CHUNKS_IN_FLIGHT));
+    }
+
+    private void validateRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fromDate must not be after toDate");
+        }
+    }
+
+    static String toCsvLine(Booking booking) {
+        return new StringBuilder(96)
+                .append(csv(booking.getBookingId())).append(',')
+                .append(csv(booking.getUserId())).append(',')
+                .append(csv(booking.getDestination())).append(',')
+                .append(csv(booking.getRate())).append(',')
+                .append(csv(booking.getBookingDate())).append(',')
+                .append(csv(booking.getNumberOfPeople())).append(',')
+                .append(csv(booking.getCreatedAt())).append(',')
+                .append(csv(booking.getStatus())).append('\n')
+                .toString();
+    }
+
+    // Quotes a value only when it contains a separator, a quote or a line break
+    private static String csv(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
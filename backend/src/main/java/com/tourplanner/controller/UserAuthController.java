@@ -2,10 +2,14 @@ package com.tourplanner.controller;
 
 import com.tourplanner.dto.UserRegisterDTO;
 import com.tourplanner.exception.AdminAccessDeniedException;
+import com.tourplanner.graphql.ClientAddressInterceptor;
 import com.tourplanner.security.JwtGenerator;
+import com.tourplanner.security.LoginRateLimiter;
+import com.tourplanner.security.PasswordHashingExecutor;
 import com.tourplanner.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,6 +17,7 @@ import org.springframework.stereotype.Controller;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class UserAuthController {
@@ -25,8 +30,21 @@ public class UserAuthController {
     @Autowired
     private JwtGenerator jwtGenerator;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @MutationMapping
-    public Mono<Map<String, String>> loginUser(@Argument String email, @Argument String password) {
+    public Mono<Map<String, String>> loginUser(@Argument String email, @Argument String password,
+                                          @ContextValue(name = ClientAddressInterceptor.CLIENT_ADDRESS_KEY, required = false) String clientAddress) {
+        // Throttled attempts stop here, before the user lookup and the BCrypt match
+        long waitNanos = loginRateLimiter.tryAcquire(email, clientAddress);
+        if (waitNanos > 0) {
+            return Mono.just(Map.of("error", loginRateLimiter.throttledMessage(waitNanos)));
+        }
+
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email, password);
 
         return reactiveAuthenticationManager.authenticate(authToken)
@@ -40,12 +58,16 @@ public class UserAuthController {
 
                     String token = jwtGenerator.generateToken(authentication, "USER");
                     return Mono.just(Map.of("token", token));
-                }).onErrorResume(e ->
+                })
+                // Hashing pool saturated: the credentials were never checked, so don't call them invalid
+                .onErrorResume(RejectedExecutionException.class, e ->
+                        Mono.just(Map.of("error", passwordHashingExecutor.busy(e).getMessage())))
+                .onErrorResume(e ->
                         Mono.just(Map.of("error", "Invalid email or password")));
     }
 
     @MutationMapping
-    public Mono<UserRegisterDTO> registerUser(@Argument UserRegisterDTO userRegisterDTO) {
-        return userService.registerUser(userRegisterDTO);
+    public Mono<UserRegisterDTO> registerUser(@Argument UserRegisterDTO userRegisterDTO, @Argument String idempotencyKey) {
+        return userService.registerUser(userRegisterDTO, idempotencyKey);
     }
 }
@@ -1,14 +1,17 @@
 package com.tourplanner.controller;
 
+import com.tourplanner.dto.Connection;
 import com.tourplanner.dto.UpdateCurrentProfileInputDTO;
 import com.tourplanner.dto.UserProfileDTO;
 import com.tourplanner.model.Booking;
 import com.tourplanner.model.Profile;
+import com.tourplanner.service.BookingService;
 import com.tourplanner.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
@@ -27,6 +30,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BookingService bookingService;
+
     @QueryMapping
     @PreAuthorize("hasRole('USER')")
     public Mono<UserProfileDTO> getCurrentUserProfile() {
@@ -49,6 +55,18 @@ public class UserController {
                 });
     }
 
+    @QueryMapping
+    @PreAuthorize("hasRole('USER')")
+    public Mono<Connection<Booking>> myBookings(@Argument Integer first, @Argument String after, @Argument String status,
+                                                @Argument String fromDate, @Argument String toDate, @Argument String destination) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .flatMap(authentication -> {
+                    String email = authentication.getName();
+                    return bookingService.getBookingsPageForUser(email, first, after, status, fromDate, toDate, destination);
+                });
+    }
+
     @MutationMapping
     @PreAuthorize("hasRole('USER')")
     public Mono<Profile> updateCurrentUserProfile(@Argument("email") String email, @Argument("input") UpdateCurrentProfileInputDTO updateCurrentProfileInputDTO) {
@@ -60,4 +78,15 @@ public class UserController {
     public Mono<String> deleteUserByEmail(@Argument String email) {
         return userService.deleteUserByEmail(email);
     }
+
+    @SubscriptionMapping
+    @PreAuthorize("hasRole('USER')")
+    public Flux<Booking> bookingStatusChanged() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .flatMapMany(authentication -> {
+                    String email = authentication.getName();
+                    return bookingService.bookingStatusChanges(email);
+                });
+    }
 }
@@ -0,0 +1,15 @@
+package com.tourplanner.dto;
+
+import com.tourplanner.model.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A committed change to a booking, pushed to GraphQL subscribers
+@Getter
+@AllArgsConstructor
+public class BookingEvent {
+    public enum Type { CREATED, STATUS_CHANGED }
+
+    private Type type;
+    private Booking booking;
+}
@@ -0,0 +1,21 @@
+package com.tourplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Optional filters of a booking listing, null fields are not applied
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingFilter {
+    private Long userId;
+    private String status;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private String destination;
+}
@@ -0,0 +1,21 @@
+package com.tourplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/*
+    Relay style connection: a page of edges plus the cursors needed to fetch the next page.
+*/
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class Connection<T> {
+    private List<Edge<T>> edges;
+    private PageInfo pageInfo;
+}
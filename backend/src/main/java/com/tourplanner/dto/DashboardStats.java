@@ -0,0 +1,45 @@
+package com.tourplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Admin dashboard figures; reconciledAt is null until the counters were first checked against the database
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardStats {
+    private long totalUsers;
+    private long totalAdmins;
+    private List<StatusCount> bookingsByStatus;
+    private List<DestinationRevenue> revenueByDestination;
+    private List<DayCount> bookingsPerDay;
+    private LocalDateTime reconciledAt;
+
+    @Getter
+    @AllArgsConstructor
+    public static class StatusCount {
+        private String status;
+        private long count;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class DestinationRevenue {
+        private String destination;
+        private long revenue;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class DayCount {
+        private LocalDate date;
+        private long count;
+    }
+}
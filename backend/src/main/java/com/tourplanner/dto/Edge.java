@@ -0,0 +1,15 @@
+package com.tourplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class Edge<T> {
+    private T node;
+    private String cursor;
+}
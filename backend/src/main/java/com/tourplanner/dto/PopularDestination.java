@@ -0,0 +1,18 @@
+package com.tourplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Travellers booked for a destination over a window. maxOverestimate is how much of that may have been
+// inherited from destinations evicted from a full summary, 0 while every destination fits
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PopularDestination {
+    private String destination;
+    private long travellers;
+    private long maxOverestimate;
+}
@@ -0,0 +1,8 @@
+package com.tourplanner.exception;
+
+// The booking was changed by another request while this one was working on it
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
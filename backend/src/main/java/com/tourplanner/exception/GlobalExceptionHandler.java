@@ -1,8 +1,11 @@
 package com.tourplanner.exception;
 
+import graphql.ErrorClassification;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
 import org.springframework.graphql.execution.ErrorType;
 import org.springframework.stereotype.Component;
@@ -12,9 +15,18 @@ import java.util.List;
 
 @Component
 public class GlobalExceptionHandler extends DataFetcherExceptionResolverAdapter {
+    // Absent when the handler is created by hand (unit tests)
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
 
     @Override
     protected List<GraphQLError> resolveToMultipleErrors(Throwable ex, DataFetchingEnvironment env) {
+        List<GraphQLError> errors = errorsFor(ex, env);
+        errors.forEach(error -> countError(error, ex));
+        return errors;
+    }
+
+    private List<GraphQLError> errorsFor(Throwable ex, DataFetchingEnvironment env) {
         if(ex instanceof AdminAccessDeniedException) {
             return List.of(GraphqlErrorBuilder.newError(env)
                     .message(ex.getMessage())
@@ -25,11 +37,33 @@ public class GlobalExceptionHandler extends DataFetcherExceptionResolverAdapter
                     .message(ex.getMessage())
                     .errorType(ErrorType.NOT_FOUND)
                     .build());
+        } else if(ex instanceof InvalidCursorException || ex instanceof InvalidFilterException
+                || ex instanceof QueryTooComplexException || ex instanceof InvalidBookingException
+                || ex instanceof IdempotencyKeyException) {
+            return List.of(GraphqlErrorBuilder.newError(env)
+                    .message(ex.getMessage())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .build());
         } else if(ex instanceof InvalidCredentialsException || ex instanceof UnauthorizedAccessException) {
             return List.of(GraphqlErrorBuilder.newError(env)
                     .message(ex.getMessage())
                     .errorType(ErrorType.UNAUTHORIZED)
                     .build());
+        } else if(ex instanceof SoldOutException) {
+            return List.of(GraphqlErrorBuilder.newError(env)
+                    .message(ex.getMessage())
+                    .errorType(ErrorClassification.errorClassification("SOLD_OUT"))
+                    .build());
+        } else if(ex instanceof BookingConflictException) {
+            return List.of(GraphqlErrorBuilder.newError(env)
+                    .message(ex.getMessage())
+                    .errorType(ErrorClassification.errorClassification("CONFLICT"))
+                    .build());
+        } else if(ex instanceof ServiceBusyException) {
+            return List.of(GraphqlErrorBuilder.newError(env)
+                    .message(ex.getMessage())
+                    .errorType(ErrorClassification.errorClassification("SERVICE_UNAVAILABLE"))
+                    .build());
         } else {
             return List.of(GraphqlErrorBuilder.newError(env)
                     .message("Unexpected error: " + ex.getMessage())
@@ -37,5 +71,34 @@ public class GlobalExceptionHandler extends DataFetcherExceptionResolverAdapter
                     .build());
         }
     }
+
+    /*
+        Errors raised for the whole request before any data fetcher runs (the query cost check)
+        have no DataFetchingEnvironment, they are built here so the client sees the same shape.
+    */
+    public GraphQLError resolveRequestError(Throwable ex) {
+        GraphQLError error;
+        if(ex instanceof QueryTooComplexException) {
+            error = GraphqlErrorBuilder.newError()
+                    .message(ex.getMessage())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .build();
+        } else {
+            error = GraphqlErrorBuilder.newError()
+                    .message("Unexpected error: " + ex.getMessage())
+                    .errorType(ErrorType.INTERNAL_ERROR)
+                    .build();
+        }
+        countError(error, ex);
+        return error;
+    }
+
+    // graphql.errors{classification, exception}: the categories above, as the client sees them
+    private void countError(GraphQLError error, Throwable ex) {
+        if (meterRegistry == null) return;
+        meterRegistry.counter("graphql.errors",
+                "classification", error.getErrorType().toString(),
+                "exception", ex.getClass().getSimpleName()).increment();
+    }
 }
 
@@ -0,0 +1,7 @@
+package com.tourplanner.exception;
+
+public class InvalidBookingException extends RuntimeException {
+    public InvalidBookingException(String message) {
+        super(message);
+    }
+}
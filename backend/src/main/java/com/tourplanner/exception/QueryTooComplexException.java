@@ -0,0 +1,7 @@
+package com.tourplanner.exception;
+
+public class QueryTooComplexException extends RuntimeException {
+    public QueryTooComplexException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,101 @@
+package com.tourplanner.graphql;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Concurrency limit that follows the latency of the requests it lets through (gradient limit).
+
+    Latency is averaged over windows of windowSize requests and compared with a slow moving
+    long-term average. While they match the limit grows by about sqrt(limit) per window;
+    when requests start queueing (connection pool, MySQL) the short-term latency rises,
+    the gradient long/short drops below 1 and the limit shrinks with it. A window in which
+    fewer than half of the permits were used doesn't raise the limit, the limit only
+    grows while it is actually the bottleneck.
+
+    Callers take a share of the limit: 1.0 may use all of it, 0.5 only the lower half,
+    so low-priority work is refused first when the limit comes down.
+*/
+
+public class AdaptiveConcurrencyLimit {
+    // Latency may grow this much before the limit is lowered
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    // The long-term latency follows roughly the last LONG_WINDOW windows
+    private static final int LONG_WINDOW = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    // Guarded by this
+    private int windowSamples;
+    private long windowRttNanos;
+    private int windowMaxInFlight;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int windowSize) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    // false when the caller's share of the limit is used up, the request should be shed
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    // rttNanos is only used when sample is true (cancelled requests say nothing about latency)
+    public void release(long rttNanos, boolean sample) {
+        int current = inFlight.getAndDecrement();
+        if (sample) {
+            onSample(rttNanos, current);
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtRelease) {
+        windowSamples++;
+        windowRttNanos += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+        if (windowSamples < windowSize) return;
+
+        double shortRtt = (double) windowRttNanos / windowSamples;
+        boolean appLimited = windowMaxInFlight * 2 < limit;
+        windowSamples = 0;
+        windowRttNanos = 0;
+        windowMaxInFlight = 0;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+            return;
+        }
+        longRttNanos += (shortRtt - longRttNanos) / LONG_WINDOW;
+        // After a long slow period, let the baseline come back down faster than it went up
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRtt));
+        if (gradient == 1.0 && appLimited) return;
+
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
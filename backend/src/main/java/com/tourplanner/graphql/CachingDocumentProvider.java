@@ -0,0 +1,124 @@
+package com.tourplanner.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Document;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+    Skips parsing and validating a GraphQL document graphql-java has already seen.
+
+    Requests with the Automatic Persisted Query extension (extensions.persistedQuery.sha256Hash)
+    go through ApolloPersistedQuerySupport, backed by a bounded store keyed by the hash:
+    - known hash: the stored document is used, the request doesn't need the query text
+    - unknown hash without text: PersistedQueryNotFound, the client sends it again with the text
+    - unknown hash with text: the hash is checked against the text, then parsed and stored
+    Plain requests are cached by their query text.
+
+    Only documents that parsed and validated cleanly are stored, so invalid queries can't fill the cache.
+    Micrometer: graphql.documents.persisted / graphql.documents.text cache stats (hit ratio),
+    graphql.document.parse for the time spent on misses and graphql.document.parse.saved
+    for the parse time each hit didn't have to spend.
+*/
+
+@Component
+@Slf4j
+public class CachingDocumentProvider implements PreparsedDocumentProvider {
+    private final Cache<String, ParsedDocument> persistedQueries;
+    private final Cache<String, ParsedDocument> documents;
+    private final ApolloPersistedQuerySupport persistedQuerySupport;
+    private final Timer parseTimer;
+    private final Counter parseTimeSaved;
+
+    public CachingDocumentProvider(MeterRegistry meterRegistry,
+                                   @Value("${tourplanner.graphql.persisted-queries.max-size:1000}") long persistedQueriesMaxSize,
+                                   @Value("${tourplanner.graphql.document-cache.max-size:1000}") long documentsMaxSize) {
+        this.persistedQueries = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder().maximumSize(persistedQueriesMaxSize).recordStats().<String, ParsedDocument>build(),
+                "graphql.documents.persisted");
+        this.documents = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder().maximumSize(documentsMaxSize).recordStats().<String, ParsedDocument>build(),
+                "graphql.documents.text");
+
+        this.persistedQuerySupport = new ApolloPersistedQuerySupport((persistedQueryId, executionInput, onCacheMiss) ->
+                CompletableFuture.completedFuture(lookup(persistedQueries, persistedQueryId.toString(),
+                        () -> onCacheMiss.apply(queryText(executionInput)))));
+
+        this.parseTimer = Timer.builder("graphql.document.parse")
+                .description("Time spent parsing and validating documents that were not cached")
+                .register(meterRegistry);
+        this.parseTimeSaved = Counter.builder("graphql.document.parse.saved")
+                .description("Parse and validation time skipped because the document was cached")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                                                                      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        if (executionInput.getExtensions().get("persistedQuery") instanceof Map) {
+            return persistedQuerySupport.getDocumentAsync(executionInput, parseAndValidateFunction);
+        }
+        return CompletableFuture.completedFuture(
+                lookup(documents, executionInput.getQuery(), () -> parseAndValidateFunction.apply(executionInput)));
+    }
+
+    // Spring GraphQL puts the marker in place of the missing text of a hash-only request
+    private static String queryText(ExecutionInput executionInput) {
+        String query = executionInput.getQuery();
+        return PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query) ? null : query;
+    }
+
+    // The document stored under an APQ hash, when this node has seen it
+    public Optional<Document> persistedDocument(String hash) {
+        return Optional.ofNullable(persistedQueries.getIfPresent(hash))
+                .map(cached -> cached.entry().getDocument());
+    }
+
+    public void invalidateAll() {
+        persistedQueries.invalidateAll();
+        documents.invalidateAll();
+    }
+
+    private PreparsedDocumentEntry lookup(Cache<String, ParsedDocument> cache, String key, Supplier<PreparsedDocumentEntry> parse) {
+        ParsedDocument cached = cache.getIfPresent(key);
+        if (cached != null) {
+            parseTimeSaved.increment(cached.parseNanos() / 1e9);
+            return cached.entry();
+        }
+
+        // Two requests missing at the same time both parse, the second put just replaces the first
+        long start = System.nanoTime();
+        PreparsedDocumentEntry entry = parse.get();
+        long parseNanos = System.nanoTime() - start;
+        parseTimer.record(parseNanos, TimeUnit.NANOSECONDS);
+
+        if (!entry.hasErrors()) {
+            cache.put(key, new ParsedDocument(entry, parseNanos));
+        } else {
+            log.debug("Not caching a document with {} errors", entry.getErrors().size());
+        }
+        return entry;
+    }
+
+    private record ParsedDocument(PreparsedDocumentEntry entry, long parseNanos) {
+    }
+}
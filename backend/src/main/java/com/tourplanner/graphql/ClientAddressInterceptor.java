@@ -0,0 +1,32 @@
+package com.tourplanner.graphql;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/*
+    Puts the caller's IP address in the GraphQLContext, handlers read it with
+    @ContextValue(CLIENT_ADDRESS_KEY). Behind a reverse proxy set server.forward-headers-strategy
+    so the address comes from X-Forwarded-For instead of being the proxy's.
+*/
+
+@Component
+public class ClientAddressInterceptor implements WebGraphQlInterceptor {
+    public static final String CLIENT_ADDRESS_KEY = "clientAddress";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            String clientAddress = remoteAddress.getAddress().getHostAddress();
+            request.configureExecutionInput((input, builder) ->
+                    builder.graphQLContext(Map.of(CLIENT_ADDRESS_KEY, clientAddress)).build());
+        }
+        return chain.next(request);
+    }
+}
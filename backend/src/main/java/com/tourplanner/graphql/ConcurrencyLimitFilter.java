@@ -0,0 +1,245 @@
+package com.tourplanner.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/*
+    Sheds GraphQL requests over HTTP once the adaptive concurrency limit is reached, before
+    Spring Security and JwtAuthenticationFilter spend a user lookup on them. A shed request gets
+    503 with Retry-After and a GraphQL-shaped error right away instead of queueing on the
+    R2DBC pool until it times out.
+
+    Requests take a share of the limit by priority:
+    - mutations (createBooking, registerUser, ...) may use all of it
+    - other queries 90%
+    - queries on the admin list fields (low-priority-fields) 50%, they are shed first
+
+    The priority comes from the request body, which is read once (up to max-inspected-bytes,
+    larger or chunked bodies count as normal queries) and handed on unchanged. A hash-only
+    persisted query is classified from the document stored for its hash.
+    WebSocket subscriptions and the export endpoint are long-lived and not limited.
+
+    Micrometer: concurrency.limit, concurrency.in-flight, concurrency.rejected{priority}.
+*/
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class ConcurrencyLimitFilter implements WebFilter {
+    private static final String GRAPHQL_PATH = "/graphql";
+    private static final Pattern LEADING_IGNORED = Pattern.compile("^(\\s|,|#[^\\n]*)*");
+    private static final String MUTATION = "mutation";
+    static final String DEFAULT_LOW_PRIORITY_FIELDS = "getAllUser,getAllAdmin,getAllBookings,getUsers,getAdmins,bookings";
+
+    enum Priority {
+        MUTATION(1.0), QUERY(0.9), BULK(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final CachingDocumentProvider cachingDocumentProvider;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxInspectedBytes;
+    private final Set<String> lowPriorityFields;
+    private final Pattern lowPriorityPattern;
+
+    public ConcurrencyLimitFilter(CachingDocumentProvider cachingDocumentProvider,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${tourplanner.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${tourplanner.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${tourplanner.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${tourplanner.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${tourplanner.concurrency.window-size:20}") int windowSize,
+                                  @Value("${tourplanner.concurrency.max-inspected-bytes:65536}") int maxInspectedBytes,
+                                  @Value("${tourplanner.concurrency.low-priority-fields:" + DEFAULT_LOW_PRIORITY_FIELDS + "}")
+                                  Set<String> lowPriorityFields) {
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, windowSize);
+        this.cachingDocumentProvider = cachingDocumentProvider;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxInspectedBytes = maxInspectedBytes;
+        this.lowPriorityFields = lowPriorityFields;
+        this.lowPriorityPattern = Pattern.compile("\\b(" + String.join("|", lowPriorityFields) + ")\\b");
+
+        Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Requests allowed in flight at once, adjusted from observed latency")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() != HttpMethod.POST || !GRAPHQL_PATH.equals(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        long contentLength = request.getHeaders().getContentLength();
+        if (contentLength < 0 || contentLength > maxInspectedBytes) {
+            return limited(exchange, chain, Priority.QUERY);
+        }
+
+        return DataBufferUtils.join(request.getBody())
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> limited(exchange.mutate().request(replayBody(request, body, exchange.getResponse().bufferFactory())).build(), chain, classify(body)));
+    }
+
+    private Mono<Void> limited(ServerWebExchange exchange, WebFilterChain chain, Priority priority) {
+        if (!limit.tryAcquire(priority.share)) {
+            log.debug("Shedding {} request, {} in flight with a limit of {}", priority, limit.getInFlight(), limit.getLimit());
+            meterRegistry.counter("concurrency.rejected", "priority", priority.name().toLowerCase()).increment();
+            return reject(exchange.getResponse());
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> limit.release(System.nanoTime() - start, signal != SignalType.CANCEL));
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+
+        Map<String, Object> error = Map.of(
+                "message", "Server is busy, please retry shortly",
+                "extensions", Map.of("classification", "SERVICE_UNAVAILABLE"));
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("errors", List.of(error)));
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (IOException e) {
+            return response.setComplete();
+        }
+    }
+
+    private static ServerHttpRequest replayBody(ServerHttpRequest request, byte[] body, DataBufferFactory bufferFactory) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(bufferFactory.wrap(body)));
+            }
+        };
+    }
+
+    Priority classify(byte[] body) {
+        try {
+            Map<?, ?> payload = objectMapper.readValue(body, Map.class);
+            String operationName = payload.get("operationName") instanceof String name ? name : null;
+
+            if (payload.get("query") instanceof String query) {
+                return classify(query, operationName);
+            }
+            return persistedQueryHash(payload)
+                    .flatMap(cachingDocumentProvider::persistedDocument)
+                    .map(document -> classify(document, operationName))
+                    .orElse(Priority.QUERY);
+        } catch (IOException | RuntimeException e) {
+            // Not ours to reject, Spring GraphQL reports the malformed request
+            return Priority.QUERY;
+        }
+    }
+
+    private Priority classify(String query, String operationName) {
+        boolean mutation = operationName != null
+                ? declaresMutation(query, operationName)
+                : LEADING_IGNORED.matcher(query).replaceFirst("").startsWith(MUTATION);
+        if (mutation) return Priority.MUTATION;
+        return lowPriorityPattern.matcher(query).find() ? Priority.BULK : Priority.QUERY;
+    }
+
+    // "mutation <operationName>" as whole words, scanned by hand so no pattern is compiled per request
+    private static boolean declaresMutation(String query, String operationName) {
+        if (operationName.isEmpty()) return false;
+        int from = 0;
+        while ((from = query.indexOf(MUTATION, from)) >= 0) {
+            int start = from;
+            from += MUTATION.length();
+            if (start > 0 && isNameChar(query.charAt(start - 1))) continue;
+
+            int name = from;
+            while (name < query.length() && Character.isWhitespace(query.charAt(name))) name++;
+            if (name == from || !query.startsWith(operationName, name)) continue;
+
+            int end = name + operationName.length();
+            if (end == query.length() || !isNameChar(query.charAt(end))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isNameChar(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    private Priority classify(Document document, String operationName) {
+        Optional<OperationDefinition> operation = document.getDefinitionsOfType(OperationDefinition.class).stream()
+                .filter(definition -> operationName == null || operationName.equals(definition.getName()))
+                .findFirst();
+        if (operation.isEmpty()) return Priority.QUERY;
+        if (operation.get().getOperation() == OperationDefinition.Operation.MUTATION) return Priority.MUTATION;
+
+        boolean bulk = operation.get().getSelectionSet().getSelectionsOfType(Field.class).stream()
+                .anyMatch(field -> lowPriorityFields.contains(field.getName()));
+        return bulk ? Priority.BULK : Priority.QUERY;
+    }
+
+    private static Optional<String> persistedQueryHash(Map<?, ?> payload) {
+        if (payload.get("extensions") instanceof Map<?, ?> extensions
+                && extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery
+                && persistedQuery.get("sha256Hash") instanceof String hash) {
+            return Optional.of(hash);
+        }
+        return Optional.empty();
+    }
+
+    AdaptiveConcurrencyLimit getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,18 @@
+package com.tourplanner.graphql;
+
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    Hooks into the GraphQlSource Spring Boot builds from the schema files.
+*/
+
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentCacheCustomizer(CachingDocumentProvider cachingDocumentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(cachingDocumentProvider));
+    }
+}
@@ -0,0 +1,58 @@
+package com.tourplanner.graphql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/*
+    Picks the query cost budget of the caller's role and hands it to QueryCostInstrumentation
+    through the GraphQLContext. Admin screens list everything, so ADMIN gets the largest budget;
+    requests without a token (login, register) only get enough for a few mutations.
+*/
+
+@Component
+public class QueryBudgetInterceptor implements WebGraphQlInterceptor {
+
+    @Value("${tourplanner.graphql.cost.budget.admin:20000}")
+    private int adminBudget;
+
+    @Value("${tourplanner.graphql.cost.budget.user:2000}")
+    private int userBudget;
+
+    @Value("${tourplanner.graphql.cost.budget.anonymous:200}")
+    private int anonymousBudget;
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(this::budgetFor)
+                .defaultIfEmpty(anonymousBudget)
+                .flatMap(budget -> {
+                    request.configureExecutionInput((input, builder) ->
+                            builder.graphQLContext(Map.of(QueryCostInstrumentation.BUDGET_KEY, budget)).build());
+                    return chain.next(request);
+                });
+    }
+
+    int budgetFor(Authentication authentication) {
+        int budget = anonymousBudget;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                budget = Math.max(budget, adminBudget);
+            } else if ("ROLE_USER".equals(authority.getAuthority())) {
+                budget = Math.max(budget, userBudget);
+            }
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,133 @@
+package com.tourplanner.graphql;
+
+import com.tourplanner.exception.GlobalExceptionHandler;
+import com.tourplanner.exception.QueryTooComplexException;
+import graphql.ExecutionResult;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.QueryComplexityCalculator;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Rejects an operation that is too deep or too expensive before any data fetcher runs,
+    so one request can't hold most of the R2DBC pool.
+
+    Cost of a field = multiplier * (1 + cost of its selections), where the multiplier comes
+    from @listCost in schema.graphqls: the sizeArgument value (e.g. first) capped at size,
+    or size itself for plain lists. Other fields have multiplier 1.
+    Example: getAllBookings { 8 fields } costs 2000 * 9 = 18000.
+
+    The budget is per role (QueryBudgetInterceptor). Introspection fields don't count
+    towards the depth, GraphiQL's schema query is deeper than any of our own.
+    Rejections are counted in graphql.requests.rejected (reason = depth | cost).
+*/
+
+@Component
+@Slf4j
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+    public static final String BUDGET_KEY = QueryCostInstrumentation.class.getName() + ".BUDGET";
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tourplanner.graphql.max-depth:8}")
+    private int maxDepth;
+
+    @Value("${tourplanner.graphql.cost.budget.anonymous:200}")
+    private int defaultBudget;
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                                  InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+
+        int depth = depth(context);
+        if (depth > maxDepth) {
+            throw reject("depth", "Query depth " + depth + " exceeds the limit of " + maxDepth);
+        }
+
+        int cost = cost(context);
+        int budget = context.getGraphQLContext().getOrDefault(BUDGET_KEY, defaultBudget);
+        if (cost > budget) {
+            throw reject("cost", "Query cost " + cost + " exceeds the budget of " + budget);
+        }
+
+        log.debug("Query {} depth {} cost {}/{}", context.getOperationDefinition().getName(), depth, cost, budget);
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private AbortExecutionException reject(String reason, String message) {
+        log.warn("Rejected GraphQL operation: {}", message);
+        meterRegistry.counter("graphql.requests.rejected", "reason", reason).increment();
+        return new AbortExecutionException(List.of(globalExceptionHandler.resolveRequestError(new QueryTooComplexException(message))));
+    }
+
+    private static int depth(ExecutionContext context) {
+        AtomicInteger maxDepth = new AtomicInteger();
+        traverser(context).visitPreOrder(new QueryVisitorStub() {
+            @Override
+            public void visitField(QueryVisitorFieldEnvironment env) {
+                int depth = 0;
+                for (QueryVisitorFieldEnvironment field = env; field != null; field = field.getParentEnvironment()) {
+                    if (field.getField().getName().startsWith("__")) return;
+                    depth++;
+                }
+                maxDepth.accumulateAndGet(depth, Math::max);
+            }
+        });
+        return maxDepth.get();
+    }
+
+    private static int cost(ExecutionContext context) {
+        return QueryComplexityCalculator.newCalculator()
+                .schema(context.getGraphQLSchema())
+                .document(context.getDocument())
+                .operationName(context.getOperationDefinition().getName())
+                .variables(context.getCoercedVariables())
+                .fieldComplexityCalculator((env, childCost) -> (int) Math.min(Integer.MAX_VALUE, (long) multiplier(env) * (1 + childCost)))
+                .build()
+                .calculate();
+    }
+
+    private static QueryTraverser traverser(ExecutionContext context) {
+        return QueryTraverser.newQueryTraverser()
+                .schema(context.getGraphQLSchema())
+                .document(context.getDocument())
+                .operationName(context.getOperationDefinition().getName())
+                .coercedVariables(context.getCoercedVariables())
+                .build();
+    }
+
+    static int multiplier(FieldComplexityEnvironment env) {
+        GraphQLAppliedDirective listCost = env.getFieldDefinition().getAppliedDirective("listCost");
+        if (listCost == null) return 1;
+
+        int size = listCost.getArgument("size").getValue();
+        GraphQLAppliedDirectiveArgument sizeArgument = listCost.getArgument("sizeArgument");
+        String argumentName = sizeArgument != null ? sizeArgument.getValue() : null;
+        if (argumentName != null && env.getArguments().get(argumentName) instanceof Number requested) {
+            return Math.max(1, Math.min(size, requested.intValue()));
+        }
+        return size;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tourplanner.logging;
+
+/*
+    An email as it may appear in the logs: "a***@gmail.com", "***@gmail.com" for names of
+    two characters or less, "hidden" when it isn't an email at all.
+
+    Pass it to the logger as an argument ({}), not as a String: the mask is only built when a
+    log line is actually written (SLF4J calls toString after the level check) and then kept,
+    so a request that logs nothing pays for this holder and nothing else, and one that logs
+    ten lines builds the mask once. No regex, no split.
+*/
+
+public final class MaskedEmail {
+    private static final MaskedEmail HIDDEN = new MaskedEmail(null);
+
+    private final String email;
+    private String masked;
+
+    private MaskedEmail(String email) {
+        this.email = email;
+    }
+
+    public static MaskedEmail of(String email) {
+        return email == null ? HIDDEN : new MaskedEmail(email);
+    }
+
+    public static String mask(String email) {
+        int at = email == null ? -1 : email.indexOf('@');
+        if (at < 0) return "hidden";
+
+        // Everything after the first '@' up to the next one, as split("@") used to give
+        int domainEnd = email.indexOf('@', at + 1);
+        if (domainEnd < 0) domainEnd = email.length();
+
+        StringBuilder builder = new StringBuilder(5 + domainEnd - at);
+        if (at > 2) builder.append(email.charAt(0));
+        return builder.append("***").append(email, at, domainEnd).toString();
+    }
+
+    // Racy but benign: two threads may both build the same string
+    @Override
+    public String toString() {
+        String result = masked;
+        if (result == null) {
+            result = mask(email);
+            masked = result;
+        }
+        return result;
+    }
+}
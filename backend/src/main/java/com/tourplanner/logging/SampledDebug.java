@@ -0,0 +1,33 @@
+package com.tourplanner.logging;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Guard for debug lines written once per row of a Flux (getAllUser, getAllBookings, ...).
+    With DEBUG on, only every rate-th row across all requests is logged, enough to see what
+    the rows look like without writing (and formatting) a line for each of thousands of them.
+    With DEBUG off it is a level check, the counter isn't touched.
+
+        .doOnNext(user -> { if (ROWS.isEnabled()) log.debug("User found with ID: {}", user.getUserId()); })
+*/
+
+public final class SampledDebug {
+    private final Logger logger;
+    private final int rate;
+    private final AtomicLong rows = new AtomicLong();
+
+    private SampledDebug(Logger logger, int rate) {
+        this.logger = logger;
+        this.rate = Math.max(1, rate);
+    }
+
+    public static SampledDebug every(int rate, Logger logger) {
+        return new SampledDebug(logger, rate);
+    }
+
+    public boolean isEnabled() {
+        return logger.isDebugEnabled() && (rate == 1 || rows.getAndIncrement() % rate == 0);
+    }
+}
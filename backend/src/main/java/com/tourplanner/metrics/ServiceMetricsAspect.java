@@ -0,0 +1,78 @@
+package com.tourplanner.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    Times every public method of the *ServiceImpl classes as "service.method",
+    tagged with class, method, outcome (success / error / cancelled) and the exception type.
+
+    Service methods return a Mono or Flux that does the work later, so the timer starts when
+    it is subscribed and stops when it terminates; only plain return values are timed around
+    the call itself. Histogram buckets are switched on in application.properties
+    (management.metrics.distribution.percentiles-histogram.service.method).
+*/
+
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.tourplanner.service.*ServiceImpl.*(..))")
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            record(className, method, start, "error", ex.getClass().getSimpleName());
+            throw ex;
+        }
+
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                long subscribed = System.nanoTime();
+                return mono
+                        .doOnSuccess(value -> record(className, method, subscribed, "success", NONE))
+                        .doOnError(ex -> record(className, method, subscribed, "error", ex.getClass().getSimpleName()))
+                        .doOnCancel(() -> record(className, method, subscribed, "cancelled", NONE));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                long subscribed = System.nanoTime();
+                return flux
+                        .doOnComplete(() -> record(className, method, subscribed, "success", NONE))
+                        .doOnError(ex -> record(className, method, subscribed, "error", ex.getClass().getSimpleName()))
+                        .doOnCancel(() -> record(className, method, subscribed, "cancelled", NONE));
+            });
+        }
+        record(className, method, start, "success", NONE);
+        return result;
+    }
+
+    private void record(String className, String method, long start, String outcome, String exception) {
+        Timer.builder("service.method")
+                .description("Service method latency, from subscription to completion")
+                .tags("class", className, "method", method, "outcome", outcome, "exception", exception)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,90 @@
+package com.tourplanner.migration;
+
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Runs EXPLAIN for the lookups the repositories depend on and checks that MySQL can answer
+    each of them from an index (possible_keys), not a full table scan.
+    possible_keys is used rather than key: on small or empty tables the optimizer may still
+    prefer a scan even though the index is there.
+
+    MySQL only; other databases (H2 in tests) are skipped. Logs a warning per missing index,
+    or stops the startup when fail-on-missing-index is set.
+*/
+
+@Component
+@Slf4j
+public class IndexUsageCheck {
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("users by email", "SELECT user_id FROM users WHERE email = 'check@example.com'");
+        QUERIES.put("profiles by user_id", "SELECT profile_id FROM profiles WHERE user_id = 1");
+        QUERIES.put("bookings by user_id", "SELECT booking_id FROM bookings WHERE user_id = 1 ORDER BY created_at DESC");
+        QUERIES.put("bookings by status and date", "SELECT booking_id FROM bookings WHERE status = 'PENDING' AND booking_date >= '2025-01-01'");
+        QUERIES.put("bookings keyset page", "SELECT booking_id FROM bookings WHERE created_at < '2025-01-01 00:00:00' ORDER BY created_at DESC, booking_id DESC LIMIT 20");
+    }
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Value("${tourplanner.migration.fail-on-missing-index:false}")
+    private boolean failOnMissingIndex;
+
+    public Mono<List<String>> verify() {
+        String database = connectionFactory.getMetadata().getName();
+        if (!database.toLowerCase().contains("mysql")) {
+            log.info("Skipping index check, EXPLAIN output is only checked on MySQL (database: {})", database);
+            return Mono.just(List.of());
+        }
+
+        return Flux.fromIterable(QUERIES.entrySet())
+                .concatMap(query -> explain(query.getKey(), query.getValue()))
+                .collectList()
+                .flatMap(missing -> {
+                    if (missing.isEmpty()) {
+                        log.info("Index check passed for {} repository queries", QUERIES.size());
+                    } else if (failOnMissingIndex) {
+                        return Mono.error(new IllegalStateException("No usable index for: " + String.join(", ", missing)));
+                    }
+                    return Mono.just(missing);
+                });
+    }
+
+    private Mono<String> explain(String name, String sql) {
+        return databaseClient.sql("EXPLAIN " + sql)
+                .map(row -> {
+                    String possibleKeys = row.get("possible_keys", String.class);
+                    String key = row.get("key", String.class);
+                    return new String[] {possibleKeys, key};
+                })
+                .first()
+                .flatMap(keys -> {
+                    if (keys[0] == null || keys[0].isBlank()) {
+                        if (keys[1] != null) {
+                            // Index used for ORDER BY only, still no table scan
+                            log.debug("Index check {}: key={}", name, keys[1]);
+                            return Mono.empty();
+                        }
+                        log.warn("Index check {}: no usable index, query will scan the table", name);
+                        return Mono.just(name);
+                    }
+                    log.debug("Index check {}: possible_keys={}, key={}", name, keys[0], keys[1]);
+                    return Mono.empty();
+                });
+    }
+}
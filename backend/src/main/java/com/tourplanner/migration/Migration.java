@@ -0,0 +1,16 @@
+package com.tourplanner.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One V<version>__<description>.sql script, already split into statements
+@Getter
+@AllArgsConstructor
+public class Migration {
+    private final int version;
+    private final String description;
+    private final String checksum;
+    private final List<String> statements;
+}
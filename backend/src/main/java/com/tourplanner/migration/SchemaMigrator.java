@@ -0,0 +1,147 @@
+package com.tourplanner.migration;
+
+import io.r2dbc.spi.R2dbcException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Brings the database schema up to date at startup, before the web server accepts requests.
+
+    Scripts from db/migration run in version order, each one once. Applied versions are recorded
+    in schema_version together with the script checksum; a changed checksum of an applied script
+    stops the startup, fix it with a new version instead of editing the old one.
+
+    MySQL can't roll back DDL, so a script that failed halfway is run again from the start on the
+    next startup. Tables use IF NOT EXISTS and indexes that already exist are skipped, which makes
+    that safe.
+
+    Runs on a single instance at a time, start replicas after the first one is up.
+*/
+
+@Component
+@Slf4j
+public class SchemaMigrator implements InitializingBean {
+    private static final int MYSQL_DUPLICATE_KEY_NAME = 1061;
+    private static final String H2_INDEX_ALREADY_EXISTS = "42S11";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private IndexUsageCheck indexUsageCheck;
+
+    @Value("${tourplanner.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tourplanner.migration.location:classpath:db/migration}")
+    private String location;
+
+    @Value("${tourplanner.migration.verify-indexes:true}")
+    private boolean verifyIndexes;
+
+    @Value("${tourplanner.migration.timeout:5m}")
+    private Duration timeout;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            log.info("Schema migrations are disabled");
+            return;
+        }
+        migrate().block(timeout);
+        if (verifyIndexes) {
+            indexUsageCheck.verify().block(timeout);
+        }
+    }
+
+    public Mono<Long> migrate() {
+        return Mono.fromCallable(this::loadMigrations)
+                .flatMap(migrations -> createVersionTable()
+                        .then(appliedChecksums())
+                        .flatMap(applied -> {
+                            validate(migrations, applied);
+                            List<Migration> pending = migrations.stream()
+                                    .filter(migration -> !applied.containsKey(migration.getVersion()))
+                                    .toList();
+                            log.info("Schema has {} applied migrations, {} pending", applied.size(), pending.size());
+                            return Flux.fromIterable(pending).concatMap(this::apply).count();
+                        }))
+                .doOnSuccess(count -> log.info("Schema is up to date, applied {} migrations", count))
+                .doOnError(err -> log.error("Schema migration failed: {}", err.getMessage(), err));
+    }
+
+    private List<Migration> loadMigrations() {
+        try {
+            return MigrationLoader.load(location);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read migrations from " + location, ex);
+        }
+    }
+
+    private Mono<Void> createVersionTable() {
+        return databaseClient.sql("CREATE TABLE IF NOT EXISTS schema_version (" +
+                        "version INT PRIMARY KEY, " +
+                        "description VARCHAR(200) NOT NULL, " +
+                        "checksum CHAR(64) NOT NULL, " +
+                        "execution_time_ms BIGINT NOT NULL, " +
+                        "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP)")
+                .then();
+    }
+
+    private Mono<Map<Integer, String>> appliedChecksums() {
+        return databaseClient.sql("SELECT version, checksum FROM schema_version")
+                .map(row -> Map.entry(row.get("version", Integer.class), row.get("checksum", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private void validate(List<Migration> migrations, Map<Integer, String> applied) {
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.getVersion());
+            if (checksum != null && !checksum.equals(migration.getChecksum())) {
+                throw new IllegalStateException("Migration V" + migration.getVersion() + " was changed after it was applied");
+            }
+        }
+    }
+
+    private Mono<Integer> apply(Migration migration) {
+        long start = System.currentTimeMillis();
+        log.info("Applying migration V{} ({})", migration.getVersion(), migration.getDescription());
+
+        return Flux.fromIterable(migration.getStatements())
+                .concatMap(statement -> databaseClient.sql(statement).then()
+                        .onErrorResume(this::alreadyExists, err -> {
+                            log.warn("Skipping statement of V{}, object already exists: {}", migration.getVersion(), err.getMessage());
+                            return Mono.empty();
+                        }))
+                .then(Mono.defer(() -> databaseClient.sql("INSERT INTO schema_version (version, description, checksum, execution_time_ms) " +
+                                "VALUES (:version, :description, :checksum, :executionTimeMs)")
+                        .bind("version", migration.getVersion())
+                        .bind("description", migration.getDescription())
+                        .bind("checksum", migration.getChecksum())
+                        .bind("executionTimeMs", System.currentTimeMillis() - start)
+                        .then()))
+                .thenReturn(migration.getVersion());
+    }
+
+    private boolean alreadyExists(Throwable err) {
+        for (Throwable cause = err; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException r2dbc) {
+                return r2dbc.getErrorCode() == MYSQL_DUPLICATE_KEY_NAME || H2_INDEX_ALREADY_EXISTS.equals(r2dbc.getSqlState());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.tourplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/*
+    Seats of one destination on one travel date (destination_capacity table).
+    capacity - remaining seats are held by bookings that aren't cancelled.
+*/
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DestinationCapacity {
+    private String destination;
+    private LocalDate travelDate;
+    private Integer capacity;
+    private Integer remaining;
+}
@@ -0,0 +1,20 @@
+package com.tourplanner.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord {
+    private String scope;
+    private String idempotencyKey;
+    private String requestHash;
+    private String response;
+    private LocalDateTime expiresAt;
+}
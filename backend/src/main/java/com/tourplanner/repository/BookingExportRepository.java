@@ -0,0 +1,72 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.model.Booking;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    Streams bookings for the export endpoint straight from the result set.
+    Rows are fetched fetch-size at a time and handed downstream as they are requested,
+    so memory stays the same however many rows match.
+
+    Every filter is optional, only the ones given end up in the WHERE clause.
+*/
+
+@Repository
+public class BookingExportRepository {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Value("${tourplanner.export.fetch-size:500}")
+    private int fetchSize;
+
+    public Flux<Booking> streamBookings(String status, LocalDate fromDate, LocalDate toDate) {
+        StringBuilder sql = new StringBuilder("SELECT booking_id, user_id, destination, rate, booking_date, " +
+                "number_of_people, created_at, status FROM bookings WHERE 1 = 1");
+        Map<String, Object> binds = new LinkedHashMap<>();
+
+        if (status != null) {
+            sql.append(" AND status = :status");
+            binds.put("status", status);
+        }
+        if (fromDate != null) {
+            sql.append(" AND booking_date >= :fromDate");
+            binds.put("fromDate", fromDate);
+        }
+        if (toDate != null) {
+            sql.append(" AND booking_date <= :toDate");
+            binds.put("toDate", toDate);
+        }
+        sql.append(" ORDER BY booking_id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(fetchSize));
+        for (Map.Entry<String, Object> bind : binds.entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+
+        return spec.map(BookingExportRepository::mapToBooking).all();
+    }
+
+    static Booking mapToBooking(Readable row) {
+        return new Booking(
+                row.get("booking_id", Long.class),
+                row.get("user_id", Long.class),
+                row.get("destination", String.class),
+                row.get("rate", Integer.class),
+                row.get("booking_date", LocalDate.class),
+                row.get("number_of_people", Integer.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("status", String.class)
+        );
+    }
+}
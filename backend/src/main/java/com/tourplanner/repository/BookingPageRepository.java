@@ -0,0 +1,70 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.dto.BookingFilter;
+import com.tourplanner.model.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    Keyset pagination over bookings, newest first, ordered by (created_at, booking_id).
+    A page seeks past the last row of the previous one instead of using OFFSET, so page 1000
+    costs the same as page 1. booking_id breaks ties between bookings created in the same instant.
+    created_at is NOT NULL since V5, a row without it could not be sought past.
+
+    Filters are added to the WHERE clause only when set.
+*/
+
+@Repository
+public class BookingPageRepository {
+    private static final String SELECT_BOOKINGS = "SELECT booking_id, user_id, destination, rate, booking_date, " +
+            "number_of_people, created_at, status FROM bookings WHERE 1 = 1";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Booking> findPage(BookingFilter filter, LocalDateTime afterCreatedAt, Long afterBookingId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_BOOKINGS);
+        Map<String, Object> binds = new LinkedHashMap<>();
+
+        if (filter.getUserId() != null) {
+            sql.append(" AND user_id = :userId");
+            binds.put("userId", filter.getUserId());
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = :status");
+            binds.put("status", filter.getStatus());
+        }
+        if (filter.getFromDate() != null) {
+            sql.append(" AND booking_date >= :fromDate");
+            binds.put("fromDate", filter.getFromDate());
+        }
+        if (filter.getToDate() != null) {
+            sql.append(" AND booking_date <= :toDate");
+            binds.put("toDate", filter.getToDate());
+        }
+        if (filter.getDestination() != null) {
+            sql.append(" AND destination = :destination");
+            binds.put("destination", filter.getDestination());
+        }
+        if (afterCreatedAt != null) {
+            sql.append(" AND (created_at < :afterCreatedAt OR (created_at = :afterCreatedAt AND booking_id < :afterBookingId))");
+            binds.put("afterCreatedAt", afterCreatedAt);
+            binds.put("afterBookingId", afterBookingId);
+        }
+        sql.append(" ORDER BY created_at DESC, booking_id DESC LIMIT :limit");
+        binds.put("limit", limit);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> bind : binds.entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+
+        return spec.map(BookingExportRepository::mapToBooking).all();
+    }
+}
@@ -1,11 +1,38 @@
 package com.tourplanner.repository;
 
 import com.tourplanner.model.Booking;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
 
 @Repository
 public interface BookingRepository extends ReactiveCrudRepository<Booking, Long> {
     Flux<Booking> findByUserId(Long userId);
+
+    // One set-based statement for all bookings of a user
+    @Modifying
+    @Query("DELETE FROM bookings WHERE user_id = :userId")
+    Mono<Long> deleteByUserId(Long userId);
+
+    /*
+        Compare-and-set of the status: 0 when the booking no longer has expectedStatus because
+        another request changed it first. The row lock makes concurrent changes queue up and the
+        later one re-checks the condition against the committed status. A NULL status matches "".
+    */
+    @Modifying
+    @Query("UPDATE bookings SET status = :newStatus WHERE booking_id = :bookingId AND COALESCE(status, '') = :expectedStatus")
+    Mono<Long> updateStatusIf(Long bookingId, String expectedStatus, String newStatus);
+
+    // Bookings whose user no longer exists, whole rows so their seats can be given back
+    @Query("SELECT b.* FROM bookings b LEFT JOIN users u ON u.user_id = b.user_id WHERE u.user_id IS NULL LIMIT :limit")
+    Flux<Booking> findOrphanBookings(int limit);
+
+    @Modifying
+    @Query("DELETE FROM bookings WHERE booking_id IN (:bookingIds)")
+    Mono<Long> deleteByBookingIdIn(Collection<Long> bookingIds);
 }
@@ -0,0 +1,78 @@
+package com.tourplanner.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    The SQL aggregates behind the admin dashboard and the popular destinations ranking,
+    used to rebuild the in-memory counters (DashboardCounters, PopularDestinations),
+    not on every read. Each one is a single GROUP BY over its table.
+*/
+
+@Repository
+public class DashboardStatsRepository {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Map<String, Long>> countUsersByType() {
+        return groupedCounts("SELECT user_type, COUNT(*) FROM users GROUP BY user_type");
+    }
+
+    public Mono<Map<String, Long>> countBookingsByStatus() {
+        return groupedCounts("SELECT status, COUNT(*) FROM bookings GROUP BY status");
+    }
+
+    // Cancelled bookings earn nothing
+    public Mono<Map<String, Long>> revenueByDestination() {
+        return groupedCounts("SELECT destination, SUM(COALESCE(rate, 0) * COALESCE(number_of_people, 0)) FROM bookings " +
+                "WHERE status IS NULL OR UPPER(status) <> 'CANCELLED' GROUP BY destination");
+    }
+
+    public Mono<Map<LocalDate, Long>> countBookingsPerDay(LocalDateTime since) {
+        return databaseClient.sql("SELECT CAST(created_at AS DATE), COUNT(*) FROM bookings WHERE created_at >= :since " +
+                        "GROUP BY CAST(created_at AS DATE)")
+                .bind("since", since)
+                .map(row -> Map.entry(row.get(0, LocalDate.class), row.get(1, Number.class).longValue()))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    // Travellers (number_of_people) booked per day and destination, cancelled bookings left out
+    public Mono<Map<LocalDate, Map<String, Long>>> travellersPerDayAndDestination(LocalDateTime since) {
+        return databaseClient.sql("SELECT CAST(created_at AS DATE), destination, SUM(COALESCE(number_of_people, 0)) FROM bookings " +
+                        "WHERE created_at >= :since AND (status IS NULL OR UPPER(status) <> 'CANCELLED') " +
+                        "GROUP BY CAST(created_at AS DATE), destination")
+                .bind("since", since)
+                .map(row -> {
+                    String destination = row.get(1, String.class);
+                    Number travellers = row.get(2, Number.class);
+                    return new DayDestination(row.get(0, LocalDate.class), destination == null ? "" : destination,
+                            travellers == null ? 0L : travellers.longValue());
+                })
+                .all()
+                .<Map<LocalDate, Map<String, Long>>>collect(HashMap::new, (days, row) ->
+                        days.computeIfAbsent(row.day(), day -> new HashMap<>()).merge(row.destination(), row.travellers(), Long::sum));
+    }
+
+    // NULL keys (status, destination, ...) are reported as ""
+    private Mono<Map<String, Long>> groupedCounts(String sql) {
+        return databaseClient.sql(sql)
+                .map(row -> {
+                    String key = row.get(0, String.class);
+                    Number value = row.get(1, Number.class);
+                    return Map.entry(key == null ? "" : key, value == null ? 0L : value.longValue());
+                })
+                .all()
+                .<Map<String, Long>>collect(HashMap::new, (map, entry) -> map.merge(entry.getKey(), entry.getValue(), Long::sum));
+    }
+
+    private record DayDestination(LocalDate day, String destination, long travellers) {
+    }
+}
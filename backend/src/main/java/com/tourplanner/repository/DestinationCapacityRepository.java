@@ -0,0 +1,87 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.model.DestinationCapacity;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/*
+    destination_capacity has a composite key, so it is read and written with plain SQL.
+    Seats are only taken through the conditional UPDATE in reserve(): the database checks
+    and decrements in one statement under the row lock, so concurrent reservations from any
+    number of application nodes can't take more than what is left.
+*/
+
+@Repository
+public class DestinationCapacityRepository {
+    private static final String KEY = " WHERE destination = :destination AND travel_date = :travelDate";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // true when the seats were taken, false when the row is missing or has fewer seats left
+    public Mono<Boolean> reserve(String destination, LocalDate travelDate, int seats) {
+        return databaseClient.sql("UPDATE destination_capacity SET remaining = remaining - :seats" + KEY +
+                        " AND remaining >= :seats")
+                .bind("seats", seats)
+                .bind("destination", destination)
+                .bind("travelDate", travelDate)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    // Never gives back more than the capacity, e.g. when a release is retried
+    public Mono<Long> release(String destination, LocalDate travelDate, int seats) {
+        return databaseClient.sql("UPDATE destination_capacity SET remaining = LEAST(capacity, remaining + :seats)" + KEY)
+                .bind("seats", seats)
+                .bind("destination", destination)
+                .bind("travelDate", travelDate)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<DestinationCapacity> find(String destination, LocalDate travelDate) {
+        return databaseClient.sql("SELECT destination, travel_date, capacity, remaining FROM destination_capacity" + KEY)
+                .bind("destination", destination)
+                .bind("travelDate", travelDate)
+                .map(DestinationCapacityRepository::mapToDestinationCapacity)
+                .first();
+    }
+
+    // Creates the row with all seats free, a concurrent insert of the same key is ignored
+    public Mono<Long> insertIfMissing(String destination, LocalDate travelDate, int capacity) {
+        return databaseClient.sql("INSERT IGNORE INTO destination_capacity (destination, travel_date, capacity, remaining) " +
+                        "VALUES (:destination, :travelDate, :capacity, :capacity)")
+                .bind("destination", destination)
+                .bind("travelDate", travelDate)
+                .bind("capacity", capacity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Changes the capacity and moves remaining by the same amount; refused if fewer seats than already booked
+    public Mono<Boolean> updateCapacity(String destination, LocalDate travelDate, int capacity) {
+        return databaseClient.sql("UPDATE destination_capacity SET remaining = remaining + (:capacity - capacity), capacity = :capacity" + KEY +
+                        " AND capacity - remaining <= :capacity")
+                .bind("capacity", capacity)
+                .bind("destination", destination)
+                .bind("travelDate", travelDate)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    private static DestinationCapacity mapToDestinationCapacity(Readable row) {
+        return new DestinationCapacity(
+                row.get("destination", String.class),
+                row.get("travel_date", LocalDate.class),
+                row.get("capacity", Integer.class),
+                row.get("remaining", Integer.class)
+        );
+    }
+}
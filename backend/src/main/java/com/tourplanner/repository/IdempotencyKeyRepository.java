@@ -0,0 +1,68 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.model.IdempotencyRecord;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/*
+    idempotency_keys has a composite key, so it is read and written with plain SQL.
+    Expired rows are ignored by find() and removed in batches by deleteExpired().
+*/
+
+@Repository
+public class IdempotencyKeyRepository {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<IdempotencyRecord> find(String scope, String idempotencyKey, LocalDateTime now) {
+        return databaseClient.sql("SELECT scope, idempotency_key, request_hash, response, expires_at FROM idempotency_keys " +
+                        "WHERE scope = :scope AND idempotency_key = :key AND expires_at > :now")
+                .bind("scope", scope)
+                .bind("key", idempotencyKey)
+                .bind("now", now)
+                .map(IdempotencyKeyRepository::mapToIdempotencyRecord)
+                .first();
+    }
+
+    // The first result stored for a key wins, an expired row is replaced
+    public Mono<Long> save(IdempotencyRecord record, LocalDateTime now) {
+        return databaseClient.sql("DELETE FROM idempotency_keys WHERE scope = :scope AND idempotency_key = :key AND expires_at <= :now")
+                .bind("scope", record.getScope())
+                .bind("key", record.getIdempotencyKey())
+                .bind("now", now)
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("INSERT IGNORE INTO idempotency_keys (scope, idempotency_key, request_hash, response, expires_at) " +
+                                "VALUES (:scope, :key, :requestHash, :response, :expiresAt)")
+                        .bind("scope", record.getScope())
+                        .bind("key", record.getIdempotencyKey())
+                        .bind("requestHash", record.getRequestHash())
+                        .bind("response", record.getResponse())
+                        .bind("expiresAt", record.getExpiresAt())
+                        .fetch()
+                        .rowsUpdated());
+    }
+
+    public Mono<Long> deleteExpired(LocalDateTime now, int limit) {
+        return databaseClient.sql("DELETE FROM idempotency_keys WHERE expires_at <= :now LIMIT :limit")
+                .bind("now", now)
+                .bind("limit", limit)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static IdempotencyRecord mapToIdempotencyRecord(Readable row) {
+        return new IdempotencyRecord(
+                row.get("scope", String.class),
+                row.get("idempotency_key", String.class),
+                row.get("request_hash", String.class),
+                row.get("response", String.class),
+                row.get("expires_at", LocalDateTime.class)
+        );
+    }
+}
@@ -1,11 +1,31 @@
 package com.tourplanner.repository;
 
 import com.tourplanner.model.Profile;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
 public interface ProfileRepository extends ReactiveCrudRepository<Profile, Long> {
     Mono<Profile> findByUserId(Long userId);
+
+    // SELECT ... FROM profiles WHERE user_id IN (...)
+    Flux<Profile> findByUserIdIn(Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM profiles WHERE user_id = :userId")
+    Mono<Long> deleteByUserId(Long userId);
+
+    // Profiles whose user no longer exists
+    @Query("SELECT p.profile_id FROM profiles p LEFT JOIN users u ON u.user_id = p.user_id WHERE u.user_id IS NULL LIMIT :limit")
+    Flux<Long> findOrphanProfileIds(int limit);
+
+    @Modifying
+    @Query("DELETE FROM profiles WHERE profile_id IN (:profileIds)")
+    Mono<Long> deleteByProfileIdIn(Collection<Long> profileIds);
 }
@@ -0,0 +1,56 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.dto.AdminProfileDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/*
+    Read-only path for profile queries.
+    users LEFT JOIN profiles in one statement and the row is mapped straight into the DTO,
+    instead of findByEmail / findById followed by profileRepository.findByUserId (two round trips).
+    A user without a profile row still comes back, with the profile fields left null.
+*/
+
+@Repository
+public class UserProfileReadRepository {
+    private static final String SELECT_USER_WITH_PROFILE =
+            "SELECT u.user_id, u.email, u.user_type, u.created_at, " +
+            "p.first_name, p.last_name, p.aadhar_number, p.city, p.phone_number " +
+            "FROM users u LEFT JOIN profiles p ON p.user_id = u.user_id ";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<AdminProfileDTO> findAdminProfileByEmail(String email) {
+        return databaseClient.sql(SELECT_USER_WITH_PROFILE + "WHERE u.email = :email")
+                .bind("email", email)
+                .map(UserProfileReadRepository::mapToAdminProfileDTO)
+                .first();
+    }
+
+    public Mono<AdminProfileDTO> findAdminProfileById(Long userId) {
+        return databaseClient.sql(SELECT_USER_WITH_PROFILE + "WHERE u.user_id = :userId")
+                .bind("userId", userId)
+                .map(UserProfileReadRepository::mapToAdminProfileDTO)
+                .first();
+    }
+
+    private static AdminProfileDTO mapToAdminProfileDTO(Readable row) {
+        return new AdminProfileDTO(
+                row.get("user_id", Long.class),
+                row.get("email", String.class),
+                row.get("user_type", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("aadhar_number", String.class),
+                row.get("city", String.class),
+                row.get("phone_number", String.class)
+        );
+    }
+}
@@ -1,11 +1,20 @@
 package com.tourplanner.repository;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import com.tourplanner.model.User;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
 public interface UserRepository extends ReactiveCrudRepository<User, Long> {
     Mono<User> findByEmail(String email);
+
+    Flux<User> findByUserType(String userType);
+
+    // Keyset pagination: seeks past the last seen user_id instead of using OFFSET,
+    // so every page costs the same no matter how deep into the table it is
+    @Query("SELECT * FROM users WHERE user_type = :userType AND user_id > :afterUserId ORDER BY user_id LIMIT :limit")
+    Flux<User> findPageByUserType(String userType, Long afterUserId, int limit);
 }
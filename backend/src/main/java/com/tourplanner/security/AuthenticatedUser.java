@@ -0,0 +1,22 @@
+package com.tourplanner.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/*
+    Spring's User plus the database userId, so the id can be written into the JWT at login
+    and read back from the token later without another lookup.
+*/
+
+@Getter
+public class AuthenticatedUser extends User {
+    private final Long userId;
+
+    public AuthenticatedUser(Long userId, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.userId = userId;
+    }
+}
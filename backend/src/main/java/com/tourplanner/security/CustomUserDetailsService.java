@@ -1,7 +1,7 @@
 package com.tourplanner.security;
 
 import com.tourplanner.exception.UserNotFoundException;
-import com.tourplanner.repository.UserRepository;
+import com.tourplanner.service.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
@@ -15,6 +15,8 @@ import java.util.List;
     UserDetailsService is an interface which has loadUserByUsername method.
     We are overriding this loadUserByUsername(String username) and we are returning
     UserDetails User(email, password, ROLE_getUserType());
+    The returned AuthenticatedUser also carries the userId so it can go into the JWT.
+    Lookups go through the UserCache, so logins and per-request token checks rarely reach MySQL.
 
     Its for spring to verify that its a legitimate user later, now its just a User spring object.
 */
@@ -22,13 +24,14 @@ import java.util.List;
 @Service
 public class CustomUserDetailsService implements ReactiveUserDetailsService {
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     public Mono<UserDetails> findByUsername(String email) {
-        return userRepository.findByEmail(email)
+        return userCache.findUserByEmail(email)
                 .switchIfEmpty(Mono.error(new UserNotFoundException("User Not Found")))
-                .map(user -> new org.springframework.security.core.userdetails.User(
+                .map(user -> new AuthenticatedUser(
+                        user.getUserId(),
                         user.getEmail(),
                         user.getPasswordHash(),
                         List.of(new SimpleGrantedAuthority("ROLE_" + user.getUserType().toString()))
@@ -1,9 +1,15 @@
 package com.tourplanner.security;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -11,6 +17,8 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 
 /*
     Get the token -> extract the email (username) from the JWT
@@ -18,17 +26,33 @@ import reactor.core.publisher.Mono;
     Wrap the UserDetails in a UsernamePasswordAuthenticationToken so Spring Security knows
     this request is authenticated and can access roles/authorities
     Continue the filter chain with this authentication in the reactive security context
+
+    With tourplanner.security.jwt.stateless=true the DB lookup is skipped: the token is
+    already verified, so subject, usertype and userid claims are trusted as they are.
+    Revoked users are rejected through the in-memory TokenDenylist instead, with a 401 from
+    JwtAuthEntryPoint.
 */
 
 
 @Component
 public class JwtAuthenticationFilter implements WebFilter {
+    private static final String FILTERED_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
     @Autowired
     private JwtGenerator jwtGenerator;
 
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private JwtAuthEntryPoint jwtAuthEntryPoint;
+
+    @Value("${tourplanner.security.jwt.stateless:false}")
+    private boolean stateless;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String path = exchange.getRequest().getPath().toString();
@@ -41,21 +65,58 @@ public class JwtAuthenticationFilter implements WebFilter {
             }
         }
 
+        // This filter is a WebFilter bean and also sits in the security chain, authenticate only once
+        if (exchange.getAttributes().putIfAbsent(FILTERED_ATTRIBUTE, Boolean.TRUE) != null) {
+            return chain.filter(exchange);
+        }
+
         String token = getJWTFromRequest(exchange.getRequest());
-        if(token != null && jwtGenerator.validateToken(token)) {
-            String username = jwtGenerator.getUserNameFromJWT(token);
+        if(token != null) {
+            // A revoked token is answered with 401 here, the chain never sees the request
+            return authenticate(token)
+                    .onErrorResume(AuthenticationException.class,
+                            err -> jwtAuthEntryPoint.commence(exchange, err).then(Mono.empty()))
+                    .flatMap(authentication -> chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)));
+        }
+        return chain.filter(exchange);
+    }
+
+    /*
+        Verifies the token and builds the Authentication for it, also used for the token
+        a WebSocket client sends in connection_init (browsers can't set headers on the handshake).
+    */
+    public Mono<Authentication> authenticate(String token) {
+        return Mono.defer(() -> {
+            // Verified once, the claims are reused for everything below
+            Claims claims = jwtGenerator.parseClaims(token);
+
+            if (stateless) {
+                return Mono.just(authenticationFromClaims(claims));
+            }
+
+            String username = claims.getSubject();
 
             return customUserDetailsService.findByUsername(username)
-                    .flatMap(userDetails -> {
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails, null, userDetails.getAuthorities());
-
-                        return chain.filter(exchange)
-                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
-                    });
+                    .map(userDetails -> new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities()));
+        });
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(Claims claims) {
+        String username = claims.getSubject();
+
+        if (tokenDenylist.isRevoked(username, claims.getIssuedAt())) {
+            throw new AuthenticationCredentialsNotFoundException("Token has been revoked");
         }
-        return chain.filter(exchange);
+
+        Number userId = claims.get(JwtGenerator.USER_ID_CLAIM, Number.class);
+        List<SimpleGrantedAuthority> authorities =
+                List.of(new SimpleGrantedAuthority("ROLE_" + claims.get(JwtGenerator.USER_TYPE_CLAIM, String.class)));
+        AuthenticatedUser principal =
+                new AuthenticatedUser(userId != null ? userId.longValue() : null, username, "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
     }
 
     private String getJWTFromRequest(ServerHttpRequest request) {
@@ -1,61 +1,138 @@
 package com.tourplanner.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import io.jsonwebtoken.*;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+    The signing key and the JwtParser are built once, JwtParser is immutable and thread safe.
+
+    parseClaims() verifies a token once and returns its claims. Verified tokens are remembered
+    in a bounded cache keyed by the SHA-256 of the token (the raw token is not kept), and every
+    entry is evicted when the token itself expires. The same token coming back on the next
+    request skips signature verification and JSON parsing.
+    Cached Claims are shared between requests, callers must only read them.
+*/
 
 @Component
 public class JwtGenerator {
+    public static final String USER_TYPE_CLAIM = "usertype";
+    public static final String USER_ID_CLAIM = "userid";
+
+    private static final long DEFAULT_CLAIMS_CACHE_SIZE = 10_000;
+
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKey(SecurityConstants.getSigningKey())
+            .build();
+
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtGenerator() {
+        this(DEFAULT_CLAIMS_CACHE_SIZE);
+    }
+
+    @Autowired
+    public JwtGenerator(@Value("${tourplanner.security.jwt.claims-cache-size:10000}") long claimsCacheSize) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public String generateToken(Authentication authentication, String userType) {
         String username = authentication.getName();
         Date currentDate = new Date();
         Date expiryDate = new Date(currentDate.getTime() + SecurityConstants.JWT_EXPIRATION);
 
-        String token = Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(currentDate)
                 .setExpiration(expiryDate)
                 .signWith(SecurityConstants.getSigningKey(), SignatureAlgorithm.HS256)
-                .claim("usertype", userType)
-                .compact();
+                .claim(USER_TYPE_CLAIM, userType);
 
-        return token;
-    }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            builder.claim(USER_ID_CLAIM, user.getUserId());
+        }
 
-    public String getUserNameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(SecurityConstants.getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String token = builder.compact();
 
-        return claims.getSubject();
+        return token;
     }
 
-    public String getUserTypeFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(SecurityConstants.getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("usertype").toString();
-    }
+    /*
+        Verifies the token (signature + expiry) and returns its claims.
+        Throws AuthenticationCredentialsNotFoundException when the token is expired or invalid.
+    */
+    public Claims parseClaims(String token) {
+        String tokenHash = hash(token);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && cached.getExpiration().after(new Date())) {
+            return cached;
+        }
 
-    public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(SecurityConstants.getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(tokenHash, claims);
+            }
+            return claims;
         } catch (ExpiredJwtException ex) {
             throw new AuthenticationCredentialsNotFoundException("Token expired");
         } catch (JwtException ex) {
             throw new AuthenticationCredentialsNotFoundException("JWT Token is invalid: " + ex.getMessage());
         }
+    }
+
+    public String getUserNameFromJWT(String token) {
+        return parseClaims(token).getSubject();
+    }
 
+    public String getUserTypeFromJWT(String token) {
+        return parseClaims(token).get(USER_TYPE_CLAIM).toString();
+    }
+
+    public boolean validateToken(String token) {
+        parseClaims(token);
+        return true;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(ex);
+        }
     }
 }
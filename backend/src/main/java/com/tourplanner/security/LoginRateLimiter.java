@@ -0,0 +1,130 @@
+package com.tourplanner.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+    Throttles login attempts before they cost a user lookup and a BCrypt match.
+
+    Two token buckets per attempt: one for the email, one for the client address
+    (limit attempts per period, with a burst of the same size). Each bucket is a single
+    AtomicLong holding the GCRA "theoretical arrival time": an attempt moves it one
+    emission interval (period / limit) ahead and is refused if that would put it more than
+    a full period ahead of now. No locks, and nothing is allocated per attempt once the
+    bucket exists: emails and addresses live in separate caches keyed by the value itself
+    (an email already in lower case is used as it is).
+
+    Buckets nobody touched for idle-timeout are evicted (Caffeine), so a spray of random
+    emails or addresses can't grow either cache beyond max-buckets.
+*/
+
+@Component
+@Slf4j
+public class LoginRateLimiter {
+    private final Cache<String, AtomicLong> emailBuckets;
+    private final Cache<String, AtomicLong> addressBuckets;
+    private final LongSupplier nanoClock;
+    private final boolean enabled;
+    private final long emailIntervalNanos;
+    private final long emailWindowNanos;
+    private final long addressIntervalNanos;
+    private final long addressWindowNanos;
+    private final Counter throttledByEmail;
+    private final Counter throttledByAddress;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${tourplanner.security.login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${tourplanner.security.login-rate-limit.per-email.limit:5}") int emailLimit,
+                            @Value("${tourplanner.security.login-rate-limit.per-email.period:1m}") Duration emailPeriod,
+                            @Value("${tourplanner.security.login-rate-limit.per-address.limit:30}") int addressLimit,
+                            @Value("${tourplanner.security.login-rate-limit.per-address.period:1m}") Duration addressPeriod,
+                            @Value("${tourplanner.security.login-rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                            @Value("${tourplanner.security.login-rate-limit.max-buckets:100000}") long maxBuckets) {
+        this(meterRegistry, enabled, emailLimit, emailPeriod, addressLimit, addressPeriod, idleTimeout, maxBuckets, System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, boolean enabled,
+                     int emailLimit, Duration emailPeriod, int addressLimit, Duration addressPeriod,
+                     Duration idleTimeout, long maxBuckets, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.nanoClock = nanoClock;
+        this.emailWindowNanos = emailPeriod.toNanos();
+        this.emailIntervalNanos = emailWindowNanos / emailLimit;
+        this.addressWindowNanos = addressPeriod.toNanos();
+        this.addressIntervalNanos = addressWindowNanos / addressLimit;
+        this.emailBuckets = buckets(meterRegistry, "email", idleTimeout, maxBuckets);
+        this.addressBuckets = buckets(meterRegistry, "address", idleTimeout, maxBuckets);
+        this.throttledByEmail = meterRegistry.counter("login.throttled", "key", "email");
+        this.throttledByAddress = meterRegistry.counter("login.throttled", "key", "address");
+    }
+
+    private static Cache<String, AtomicLong> buckets(MeterRegistry meterRegistry, String key,
+                                                     Duration idleTimeout, long maxBuckets) {
+        return CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .<String, AtomicLong>build(), "login.rate-limit.buckets", "key", key);
+    }
+
+    /*
+        0 when the attempt may go ahead, otherwise the nanoseconds until the next attempt is allowed.
+        The address is checked first, so a flood from one address doesn't lock its victims' emails.
+    */
+    public long tryAcquire(String email, String clientAddress) {
+        if (!enabled) return 0;
+        long now = nanoClock.getAsLong();
+
+        if (clientAddress != null) {
+            long wait = take(addressBuckets.get(clientAddress, key -> new AtomicLong(now)), now, addressIntervalNanos, addressWindowNanos);
+            if (wait > 0) {
+                throttledByAddress.increment();
+                log.warn("Login attempts from {} throttled", clientAddress);
+                return wait;
+            }
+        }
+        if (email != null) {
+            String normalized = email.trim().toLowerCase(Locale.ROOT);
+            long wait = take(emailBuckets.get(normalized, key -> new AtomicLong(now)), now, emailIntervalNanos, emailWindowNanos);
+            if (wait > 0) {
+                throttledByEmail.increment();
+                log.warn("Login attempts for one email throttled");
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    // GCRA: the bucket holds the time at which it will be empty again
+    private static long take(AtomicLong bucket, long now, long intervalNanos, long windowNanos) {
+        while (true) {
+            long emptyAt = bucket.get();
+            long next = Math.max(emptyAt, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > windowNanos) {
+                return ahead - windowNanos;
+            }
+            if (bucket.compareAndSet(emptyAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public String throttledMessage(long waitNanos) {
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        return "Too many login attempts, try again in " + seconds + " seconds";
+    }
+}
@@ -0,0 +1,87 @@
+package com.tourplanner.security;
+
+import com.tourplanner.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    BCrypt takes ~100 ms per hash. Run on a Netty event-loop thread it stalls every other
+    request sharing that thread, so hashing and matching run here instead:
+    a fixed pool (one thread per core by default) with a bounded queue.
+
+    When the queue is full the task is rejected right away instead of piling up,
+    callers get a ServiceBusyException. Pool and queue usage are published under
+    "password.hashing", rejections as "password.hashing.rejected".
+*/
+
+@Component
+@Slf4j
+public class PasswordHashingExecutor implements DisposableBean {
+    private final ExecutorService executor;
+    private final Scheduler scheduler;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(@Value("${tourplanner.security.password-hashing.threads:0}") int threads,
+                                   @Value("${tourplanner.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password.hashing");
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hashing");
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+
+        log.info("Password hashing pool started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public Mono<String> encode(PasswordEncoder passwordEncoder, String rawPassword) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(rawPassword))
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, this::busy);
+    }
+
+    public ServiceBusyException busy(Throwable cause) {
+        rejected.increment();
+        log.warn("Password hashing queue is full, rejecting request");
+        return new ServiceBusyException("Server is busy, please try again shortly");
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
@@ -52,10 +52,13 @@ public class SecurityConfig {
 
     @Bean
     public ReactiveAuthenticationManager reactiveAuthenticationManager(CustomUserDetailsService customUserDetailsService,
-                                                                       PasswordEncoder passwordEncoder) {
+                                                                       PasswordEncoder passwordEncoder,
+                                                                       PasswordHashingExecutor passwordHashingExecutor) {
         UserDetailsRepositoryReactiveAuthenticationManager manager =
                 new UserDetailsRepositoryReactiveAuthenticationManager(customUserDetailsService);
         manager.setPasswordEncoder(passwordEncoder);
+        // BCrypt matching runs on the bounded hashing pool, never on the thread that delivered the DB row
+        manager.setScheduler(passwordHashingExecutor.getScheduler());
         return manager;
     }
 
@@ -66,6 +69,8 @@ public class SecurityConfig {
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthEntryPoint))
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/graphql").permitAll()
+                        // Scraped by Prometheus; keep /actuator off the public network (or move it with management.server.port)
+                        .pathMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                         .anyExchange().authenticated()
                 )
                 .addFilterAt(jwtAuthenticationFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
@@ -9,7 +9,10 @@ public class SecurityConstants {
     public static final long JWT_EXPIRATION = 3600000;
     public static final String JWT_SECRET = "ihavealongjwtsecretwordforareason";
 
+    // Derived once, the key is immutable and safe to share between threads
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8));
+
     public static Key getSigningKey() {
-        return Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8));
+        return SIGNING_KEY;
     }
 }
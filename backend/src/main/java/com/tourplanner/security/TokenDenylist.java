@@ -0,0 +1,45 @@
+package com.tourplanner.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    In stateless mode the database is not consulted per request, so a deleted user's
+    token would stay valid until it expires. Revoking a subject rejects every token
+    issued for it up to that moment.
+
+    An entry only has to live as long as the longest token it can reject
+    (SecurityConstants.JWT_EXPIRATION), after that it is dropped.
+*/
+
+@Component
+public class TokenDenylist {
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    public void revoke(String subject) {
+        if (subject == null) return;
+        long now = System.currentTimeMillis();
+        revokedAt.put(subject, now);
+        purgeExpired(now);
+    }
+
+    public boolean isRevoked(String subject, Date issuedAt) {
+        if (subject == null) return false;
+        Long revokedTime = revokedAt.get(subject);
+        if (revokedTime == null) return false;
+
+        if (System.currentTimeMillis() - revokedTime > SecurityConstants.JWT_EXPIRATION) {
+            revokedAt.remove(subject, revokedTime);
+            return false;
+        }
+        // iat has second precision, so a token issued in the same second is treated as revoked
+        return issuedAt == null || issuedAt.getTime() <= revokedTime;
+    }
+
+    private void purgeExpired(long now) {
+        revokedAt.values().removeIf(time -> now - time > SecurityConstants.JWT_EXPIRATION);
+    }
+}
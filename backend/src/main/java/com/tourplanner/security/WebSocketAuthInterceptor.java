@@ -0,0 +1,67 @@
+package com.tourplanner.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlInterceptor;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/*
+    Browsers can't send an Authorization header on the WebSocket handshake, so the client
+    puts the JWT in the connection_init payload: { "Authorization": "Bearer <token>" }.
+    It is verified once for the connection, same way as JwtAuthenticationFilter does for HTTP,
+    and the Authentication is kept in the session attributes. Every subscription on that
+    connection then runs with it in the reactive security context, so @PreAuthorize applies.
+
+    A connection without a valid token is closed during connection_init (4401 Unauthorized).
+    Runs first so later interceptors (query budget) see the authenticated user.
+*/
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class WebSocketAuthInterceptor implements WebSocketGraphQlInterceptor {
+    private static final String AUTHENTICATION_ATTRIBUTE = WebSocketAuthInterceptor.class.getName() + ".AUTHENTICATION";
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Override
+    public Mono<Object> handleConnectionInitialization(WebSocketSessionInfo sessionInfo, Map<String, Object> connectionInitPayload) {
+        Object header = connectionInitPayload.get("Authorization");
+        if (!(header instanceof String bearer) || !bearer.startsWith("Bearer ")) {
+            log.warn("WebSocket connection {} sent no token in connection_init", sessionInfo.getId());
+            return Mono.error(new AuthenticationCredentialsNotFoundException("Missing token in connection_init"));
+        }
+
+        return jwtAuthenticationFilter.authenticate(bearer.substring(7))
+                .switchIfEmpty(Mono.error(() -> new AuthenticationCredentialsNotFoundException("Unknown user")))
+                .doOnNext(authentication -> {
+                    sessionInfo.getAttributes().put(AUTHENTICATION_ATTRIBUTE, authentication);
+                    log.debug("WebSocket connection {} authenticated as {}", sessionInfo.getId(), authentication.getName());
+                })
+                .then(Mono.empty());
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (request instanceof WebSocketGraphQlRequest webSocketRequest) {
+            Object authentication = webSocketRequest.getSessionInfo().getAttributes().get(AUTHENTICATION_ATTRIBUTE);
+            if (authentication instanceof Authentication auth) {
+                return chain.next(request).contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+            }
+        }
+        return chain.next(request);
+    }
+}
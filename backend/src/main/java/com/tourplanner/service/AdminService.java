@@ -1,11 +1,16 @@
 package com.tourplanner.service;
 
 import com.tourplanner.dto.AdminProfileDTO;
+import com.tourplanner.dto.Connection;
+import com.tourplanner.dto.DashboardStats;
 import com.tourplanner.dto.UserProfileDTO;
 import com.tourplanner.model.Booking;
+import com.tourplanner.model.DestinationCapacity;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 public interface AdminService {
     Mono<AdminProfileDTO> getCurrentAdminProfile(String email);
     Mono<AdminProfileDTO> getUserById(Long userId);
@@ -13,9 +18,15 @@ public interface AdminService {
     Mono<AdminProfileDTO> getUserByEmail(String email);
     Flux<AdminProfileDTO> getAllUser();
     Flux<AdminProfileDTO> getAllAdmin();
+    Mono<Connection<AdminProfileDTO>> getUsersPage(Integer first, String after);
+    Mono<Connection<AdminProfileDTO>> getAdminsPage(Integer first, String after);
     Mono<Booking> getBookingById(Long bookingId);
     Flux<Booking> getAllBookings();
+    Flux<Booking> exportBookings(String status, LocalDate fromDate, LocalDate toDate);
     Mono<Booking> updateUserBooking(Long bookingId, String email);
+    Mono<DashboardStats> getDashboardStats(Integer days);
+    Flux<Booking> bookingCreations();
+    Mono<DestinationCapacity> setDestinationCapacity(String destination, LocalDate travelDate, Integer capacity);
     Mono<UserProfileDTO> updateUserById(Long userId, UserProfileDTO userProfileDTO);
     Mono<String> deleteUserById(Long userId);
 }
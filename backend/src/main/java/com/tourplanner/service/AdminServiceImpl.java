@@ -1,23 +1,48 @@
 package com.tourplanner.service;
 
 import com.tourplanner.dto.AdminProfileDTO;
+import com.tourplanner.dto.BookingEvent;
+import com.tourplanner.dto.Connection;
+import com.tourplanner.dto.DashboardStats;
+import com.tourplanner.dto.Edge;
+import com.tourplanner.dto.PageInfo;
 import com.tourplanner.dto.UserProfileDTO;
+import com.tourplanner.exception.BookingConflictException;
 import com.tourplanner.exception.BookingIdNotFoundException;
 import com.tourplanner.exception.UserNotFoundException;
+import com.tourplanner.logging.MaskedEmail;
+import com.tourplanner.logging.SampledDebug;
 import com.tourplanner.model.Booking;
+import com.tourplanner.model.DestinationCapacity;
+import com.tourplanner.model.Profile;
 import com.tourplanner.model.User;
+import com.tourplanner.repository.BookingExportRepository;
 import com.tourplanner.repository.BookingRepository;
 import com.tourplanner.repository.ProfileRepository;
 import com.tourplanner.repository.UserRepository;
+import com.tourplanner.security.TokenDenylist;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @Service
 @Slf4j
 public class AdminServiceImpl implements AdminService{
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String CANCELLED = "CANCELLED";
+    // Reads of a booking whose status keeps being changed under us before giving up
+    private static final int STATUS_CHANGE_ATTEMPTS = 3;
+    // Per-row debug lines of the list queries, one row in 100 is logged
+    private static final SampledDebug ROWS = SampledDebug.every(100, log);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -27,37 +52,61 @@ public class AdminServiceImpl implements AdminService{
     @Autowired
     private BookingRepository bookingRepository;
 
-    private String maskEmail(String email) {
-        if(email == null || !email.contains("@")) return "hidden";
-        String[] parts = email.split("@");
-        String name = parts[0];
-        if(name.length() <= 2) return "***@" + parts[1];
-        return name.charAt(0) + "***@" + parts[1];
-    }
+    @Autowired
+    private BookingExportRepository bookingExportRepository;
+
+    @Autowired
+    private ProfileBatchLoader profileBatchLoader;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CascadingUserDeleter cascadingUserDeleter;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private BookingEventPublisher bookingEventPublisher;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
 
-    private Mono<AdminProfileDTO> mapToAdminProfileDTOReactive(User user) {
-        return profileRepository.findByUserId(user.getUserId())
-                .map(profile -> new AdminProfileDTO(
-                        user.getUserId(),
-                        user.getEmail(),
-                        user.getUserType(),
-                        user.getCreatedAt(),
-                        profile != null ? profile.getFirstName() : null,
-                        profile != null ? profile.getLastName() : null,
-                        profile != null ? profile.getAadharNumber() : null,
-                        profile != null ? profile.getCity() : null,
-                        profile != null ? profile.getPhoneNumber() : null
-                ));
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private PopularDestinations popularDestinations;
+
+    private AdminProfileDTO mapToAdminProfileDTO(User user, Profile profile) {
+        return new AdminProfileDTO(
+                user.getUserId(),
+                user.getEmail(),
+                user.getUserType(),
+                user.getCreatedAt(),
+                profile != null ? profile.getFirstName() : null,
+                profile != null ? profile.getLastName() : null,
+                profile != null ? profile.getAadharNumber() : null,
+                profile != null ? profile.getCity() : null,
+                profile != null ? profile.getPhoneNumber() : null
+        );
     }
 
     @Override
     public Mono<AdminProfileDTO> getCurrentAdminProfile(String email) {
-        String maskedEmail = maskEmail(email);
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
         log.info("Fetching admin profile for email: {}", maskedEmail);
 
-        return userRepository.findByEmail(email)
-                .doOnSubscribe(sub -> log.debug("Started searching admin user in DB for {}", maskedEmail))
-                .doOnNext(user -> log.debug("Admin user found with ID: {}", user.getUserId()))
+        // users JOIN profiles in a single statement, served from the user cache when present
+        return userCache.findProfileByEmail(email)
+                .doOnSubscribe(sub -> log.debug("Started searching admin profile in DB for {}", maskedEmail))
 
                 // If no user found -> error
                 .switchIfEmpty(Mono.defer(() -> {
@@ -65,21 +114,17 @@ public class AdminServiceImpl implements AdminService{
                     return Mono.error(new UserNotFoundException("User not found with email: " + email));
                 }))
 
-                .flatMap(user -> {
-                    log.debug("Mapping admin user to AdminProfileDTO for {}", maskedEmail);
-                    return mapToAdminProfileDTOReactive(user)
-                            .doOnSuccess(dto -> log.info("Successfully mapped admin profile for {} with ID={}", maskedEmail, user.getUserId()))
-                            .doOnError(err -> log.error("Error mapping admin profile for {}: {}", maskedEmail, err.getMessage(), err));
-                });
+                .doOnSuccess(dto -> log.info("Successfully mapped admin profile for {} with ID={}", maskedEmail, dto.getUserId()))
+                .doOnError(err -> log.error("Error mapping admin profile for {}: {}", maskedEmail, err.getMessage(), err));
     }
 
     @Override
     public Mono<AdminProfileDTO> getUserById(Long userId) {
         log.info("Fetching user profile for userId: {}", userId);
 
-        return userRepository.findById(userId)
+        return userCache.findProfileById(userId)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for userId: {}", userId))
-                .doOnNext(user -> log.debug("User found with ID: {} and type: {}", user.getUserId(), user.getUserType()))
+                .doOnNext(dto -> log.debug("User found with ID: {} and type: {}", dto.getUserId(), dto.getUserType()))
 
                 // If no user found -> error
                 .switchIfEmpty(Mono.defer(() -> {
@@ -87,15 +132,13 @@ public class AdminServiceImpl implements AdminService{
                     return Mono.error(new UserNotFoundException("User not found with id: " + userId));
                 }))
 
-                .flatMap(user -> {
-                    if ("ADMIN".equalsIgnoreCase(user.getUserType())) {
+                .flatMap(dto -> {
+                    if ("ADMIN".equalsIgnoreCase(dto.getUserType())) {
                         log.warn("User with ID {} is an admin, cannot fetch as regular user", userId);
                         return Mono.error(new UserNotFoundException("No user found with id: " + userId));
                     }
-                    log.debug("Mapping user to AdminProfileDTO for userId: {}", userId);
-                    return mapToAdminProfileDTOReactive(user)
-                            .doOnSuccess(dto -> log.info("Successfully mapped user to AdminProfileDTO for userId: {}", userId))
-                            .doOnError(err -> log.error("Error mapping user to AdminProfileDTO for userId {}: {}", userId, err.getMessage(), err));
+                    log.info("Successfully mapped user to AdminProfileDTO for userId: {}", userId);
+                    return Mono.just(dto);
                 });
     }
 
@@ -103,9 +146,9 @@ public class AdminServiceImpl implements AdminService{
     public Mono<AdminProfileDTO> getAdminById(Long userId) {
         log.info("Fetching admin profile for userId: {}", userId);
 
-        return userRepository.findById(userId)
+        return userCache.findProfileById(userId)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for userId: {}", userId))
-                .doOnNext(user -> log.debug("User found with ID: {} and type: {}", user.getUserId(), user.getUserType()))
+                .doOnNext(dto -> log.debug("User found with ID: {} and type: {}", dto.getUserId(), dto.getUserType()))
 
                 // If no user found -> error
                 .switchIfEmpty(Mono.defer(() -> {
@@ -113,26 +156,24 @@ public class AdminServiceImpl implements AdminService{
                     return Mono.error(new UserNotFoundException("User not found with id: " + userId));
                 }))
 
-                .flatMap(user -> {
-                    if ("USER".equalsIgnoreCase(user.getUserType())) {
+                .flatMap(dto -> {
+                    if ("USER".equalsIgnoreCase(dto.getUserType())) {
                         log.warn("User with ID {} is a regular user, cannot fetch as admin", userId);
                         return Mono.error(new UserNotFoundException("No admin found with id: " + userId));
                     }
-                    log.debug("Mapping admin user to AdminProfileDTO for userId: {}", userId);
-                    return mapToAdminProfileDTOReactive(user)
-                            .doOnSuccess(dto -> log.info("Successfully mapped admin profile for userId: {}", userId))
-                            .doOnError(err -> log.error("Error mapping admin profile for userId {}: {}", userId, err.getMessage(), err));
+                    log.info("Successfully mapped admin profile for userId: {}", userId);
+                    return Mono.just(dto);
                 });
     }
 
     @Override
     public Mono<AdminProfileDTO> getUserByEmail(String email) {
-        String maskedEmail = maskEmail(email);
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
         log.info("Fetching user profile for email: {}", maskedEmail);
 
-        return userRepository.findByEmail(email)
+        return userCache.findProfileByEmail(email)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for {}", maskedEmail))
-                .doOnNext(user -> log.debug("User found with ID: {} and type: {}", user.getUserId(), user.getUserType()))
+                .doOnNext(dto -> log.debug("User found with ID: {} and type: {}", dto.getUserId(), dto.getUserType()))
 
                 // If no user found -> error
                 .switchIfEmpty(Mono.defer(() -> {
@@ -140,16 +181,13 @@ public class AdminServiceImpl implements AdminService{
                     return Mono.error(new UserNotFoundException("User not found with email: " + email));
                 }))
 
-                .flatMap(user -> {
-                    if ("ADMIN".equalsIgnoreCase(user.getUserType())) {
+                .flatMap(dto -> {
+                    if ("ADMIN".equalsIgnoreCase(dto.getUserType())) {
                         log.warn("User with email {} is an admin, cannot fetch as regular user", maskedEmail);
                         return Mono.error(new UserNotFoundException("No user found with email: " + email));
                     }
-
-                    log.debug("Mapping user to AdminProfileDTO for {}", maskedEmail);
-                    return mapToAdminProfileDTOReactive(user)
-                            .doOnSuccess(dto -> log.info("Successfully mapped user to AdminProfileDTO for {}", maskedEmail))
-                            .doOnError(err -> log.error("Error mapping user to AdminProfileDTO for {}: {}", maskedEmail, err.getMessage(), err));
+                    log.info("Successfully mapped user to AdminProfileDTO for {}", maskedEmail);
+                    return Mono.just(dto);
                 });
     }
 
@@ -157,18 +195,14 @@ public class AdminServiceImpl implements AdminService{
     public Flux<AdminProfileDTO> getAllUser() {
         log.info("Fetching all users");
 
-        return userRepository.findAll()
-                .doOnSubscribe(sub -> log.debug("Started fetching all users from DB"))
-                .doOnNext(user -> log.debug("User found with ID: {} and type: {}", user.getUserId(), user.getUserType()))
-
-                .filter(user -> "USER".equalsIgnoreCase(user.getUserType()))
+        // user_type is filtered in SQL, only matching rows leave the database
+        return userRepository.findByUserType("USER")
+                .doOnSubscribe(sub -> log.debug("Started fetching all users of type USER from DB"))
+                .doOnNext(user -> { if (ROWS.isEnabled()) log.debug("User found with ID: {} and type: {}", user.getUserId(), user.getUserType()); })
 
-                .flatMap(user -> {
-                    log.debug("Mapping user to AdminProfileDTO for userId: {}", user.getUserId());
-                    return mapToAdminProfileDTOReactive(user)
-                            .doOnSuccess(dto -> log.info("Successfully mapped user with ID: {}", user.getUserId()))
-                            .doOnError(err -> log.error("Error mapping user with ID {}: {}", user.getUserId(), err.getMessage(), err));
-                })
+                // Profiles are loaded in batches (one IN query per chunk) instead of one query per user
+                .transform(users -> profileBatchLoader.withProfiles(users, this::mapToAdminProfileDTO))
+                .doOnNext(dto -> { if (ROWS.isEnabled()) log.debug("Successfully mapped user with ID: {}", dto.getUserId()); })
                 .doOnComplete(() -> log.info("Completed fetching all users"))
                 .doOnError(err -> log.error("Error fetching all users: {}", err.getMessage(), err));
     }
@@ -177,27 +211,67 @@ public class AdminServiceImpl implements AdminService{
     public Flux<AdminProfileDTO> getAllAdmin() {
         log.info("Fetching all users");
 
-        return userRepository.findAll()
-                .doOnSubscribe(sub -> log.debug("Started fetching all users from DB"))
-                .doOnNext(user -> log.debug("User found with ID: {} and type: {}", user.getUserId(), user.getUserType()))
-
-                .filter(user -> "ADMIN".equalsIgnoreCase(user.getUserType()))
+        // user_type is filtered in SQL, only matching rows leave the database
+        return userRepository.findByUserType("ADMIN")
+                .doOnSubscribe(sub -> log.debug("Started fetching all users of type ADMIN from DB"))
+                .doOnNext(user -> { if (ROWS.isEnabled()) log.debug("User found with ID: {} and type: {}", user.getUserId(), user.getUserType()); })
 
-                .flatMap(user -> {
-                    log.debug("Mapping user to AdminProfileDTO for userId: {}", user.getUserId());
-                    return mapToAdminProfileDTOReactive(user)
-                            .doOnSuccess(dto -> log.info("Successfully mapped user with ID: {}", user.getUserId()))
-                            .doOnError(err -> log.error("Error mapping user with ID {}: {}", user.getUserId(), err.getMessage(), err));
-                })
+                // Profiles are loaded in batches (one IN query per chunk) instead of one query per user
+                .transform(users -> profileBatchLoader.withProfiles(users, this::mapToAdminProfileDTO))
+                .doOnNext(dto -> { if (ROWS.isEnabled()) log.debug("Successfully mapped admin with ID: {}", dto.getUserId()); })
                 .doOnComplete(() -> log.info("Completed fetching all admins"))
                 .doOnError(err -> log.error("Error fetching all admins: {}", err.getMessage(), err));
     }
 
+    @Override
+    public Mono<Connection<AdminProfileDTO>> getUsersPage(Integer first, String after) {
+        log.info("Fetching page of users, first: {}", first);
+        return getProfilePage("USER", first, after);
+    }
+
+    @Override
+    public Mono<Connection<AdminProfileDTO>> getAdminsPage(Integer first, String after) {
+        log.info("Fetching page of admins, first: {}", first);
+        return getProfilePage("ADMIN", first, after);
+    }
+
+    private Mono<Connection<AdminProfileDTO>> getProfilePage(String userType, Integer first, String after) {
+        int pageSize = pageSize(first);
+
+        // One extra row tells us whether another page exists without a COUNT(*)
+        return Mono.fromCallable(() -> after != null ? CursorCodec.decodeLong(after) : 0L)
+                .flatMapMany(afterUserId -> userRepository.findPageByUserType(userType, afterUserId, pageSize + 1)
+                        .doOnSubscribe(sub -> log.debug("Started fetching {} page after userId {}", userType, afterUserId)))
+                .collectList()
+                .flatMap(users -> {
+                    boolean hasNextPage = users.size() > pageSize;
+                    List<User> page = hasNextPage ? users.subList(0, pageSize) : users;
+
+                    return profileBatchLoader.withProfiles(Flux.fromIterable(page), this::mapToAdminProfileDTO)
+                            .map(dto -> new Edge<>(dto, CursorCodec.encode(dto.getUserId())))
+                            .collectList()
+                            .map(edges -> {
+                                String startCursor = page.isEmpty() ? null : CursorCodec.encode(page.get(0).getUserId());
+                                String endCursor = page.isEmpty() ? null : CursorCodec.encode(page.get(page.size() - 1).getUserId());
+                                return new Connection<>(edges, new PageInfo(hasNextPage, after != null, startCursor, endCursor));
+                            });
+                })
+                .doOnSuccess(connection -> log.debug("Fetched {} {} profiles, hasNextPage: {}",
+                        connection.getEdges().size(), userType, connection.getPageInfo().isHasNextPage()))
+                .doOnError(err -> log.error("Error fetching {} page: {}", userType, err.getMessage(), err));
+    }
+
+    private int pageSize(Integer first) {
+        if (first == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(first, MAX_PAGE_SIZE));
+    }
+
     @Override
     public Mono<Booking> getBookingById(Long bookingId) {
         log.info("Fetching booking for bookingId: {}", bookingId);
 
-        return bookingRepository.findById(bookingId)
+        // Concurrent lookups of the same booking share one query
+        return singleFlight.execute("bookings.by-id", bookingId, () -> bookingRepository.findById(bookingId))
                 .doOnSubscribe(sub -> log.debug("Started searching booking in DB for bookingId: {}", bookingId))
                 .doOnNext(booking -> log.debug("Booking found with ID: {} for userId: {}", booking.getBookingId(), booking.getUserId()))
 
@@ -215,15 +289,42 @@ public class AdminServiceImpl implements AdminService{
 
         return bookingRepository.findAll()
                 .doOnSubscribe(sub -> log.debug("Started fetching all bookings from DB"))
-                .doOnNext(booking -> log.debug("Booking found with ID: {} for userId: {}", booking.getBookingId(), booking.getUserId()))
+                .doOnNext(booking -> { if (ROWS.isEnabled()) log.debug("Booking found with ID: {} for userId: {}", booking.getBookingId(), booking.getUserId()); })
                 .doOnComplete(() -> log.info("Completed fetching all bookings"))
                 .doOnError(err -> log.error("Error fetching all bookings: {}", err.getMessage(), err));
     }
 
+    @Override
+    public Flux<Booking> exportBookings(String status, LocalDate fromDate, LocalDate toDate) {
+        log.info("Exporting bookings with status={}, fromDate={}, toDate={}", status, fromDate, toDate);
+
+        // No per-row logging here, an export can be millions of rows
+        return bookingExportRepository.streamBookings(status, fromDate, toDate)
+                .doOnSubscribe(sub -> log.debug("Started streaming bookings from DB"))
+                .doOnComplete(() -> log.info("Completed booking export"))
+                .doOnCancel(() -> log.info("Booking export cancelled by the client"))
+                .doOnError(err -> log.error("Error exporting bookings: {}", err.getMessage(), err));
+    }
+
+    /*
+        The status moves with a conditional UPDATE (updateStatusIf) in the same transaction as
+        the seats: of two admins cancelling the same booking at once only one changes the row,
+        so the seats are released and the counters moved exactly once. The other one reads the
+        booking again and finds it already cancelled.
+    */
     @Override
     public Mono<Booking> updateUserBooking(Long bookingId, String status) {
         log.info("Received request to update booking status for bookingId: {}", bookingId);
 
+        return Mono.defer(() -> changeBookingStatus(bookingId, status))
+                .retryWhen(Retry.max(STATUS_CHANGE_ATTEMPTS - 1)
+                        .filter(BookingConflictException.class::isInstance)
+                        .doBeforeRetry(signal -> log.debug("Status of bookingId {} changed concurrently, reading it again", bookingId))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnError(err -> log.error("Error in updateUserBooking for bookingId {}: {}", bookingId, err.getMessage(), err));
+    }
+
+    private Mono<Booking> changeBookingStatus(Long bookingId, String status) {
         return bookingRepository.findById(bookingId)
                 .doOnSubscribe(sub -> log.debug("Started searching booking in DB for bookingId: {}", bookingId))
                 .doOnNext(booking -> log.debug("Booking found with ID: {} for userId: {}", booking.getBookingId(), booking.getUserId()))
@@ -234,13 +335,69 @@ public class AdminServiceImpl implements AdminService{
                 }))
 
                 .flatMap(booking -> {
-                    log.debug("Updating status of bookingId {} to '{}'", bookingId, status);
+                    String previousStatus = booking.getStatus();
+                    if (status != null && status.equals(previousStatus)) {
+                        log.debug("BookingId {} already has status '{}'", bookingId, status);
+                        return Mono.just(booking);
+                    }
+
+                    log.debug("Updating status of bookingId {} from '{}' to '{}'", bookingId, previousStatus, status);
                     booking.setStatus(status);
-                    return bookingRepository.save(booking)
+                    return bookingRepository.updateStatusIf(bookingId, previousStatus == null ? "" : previousStatus, status)
+                            .flatMap(rows -> rows == 1
+                                    ? seatsForStatusChange(booking, previousStatus).thenReturn(booking)
+                                    : Mono.<Booking>error(new BookingConflictException("Booking " + bookingId + " was changed by another request, please retry")))
+                            .as(transactionalOperator::transactional)
                             .doOnSuccess(updatedBooking -> log.info("Booking status updated successfully for bookingId {} to '{}'", bookingId, status))
-                            .doOnError(err -> log.error("Error updating booking status for bookingId {}: {}", bookingId, err.getMessage(), err));
-                })
-                .doOnError(err -> log.error("Error in updateUserBooking for bookingId {}: {}", bookingId, err.getMessage(), err));
+                            .doOnSuccess(bookingEventPublisher::bookingStatusChanged)
+                            .doOnSuccess(updatedBooking -> dashboardCounters.bookingStatusChanged(updatedBooking, previousStatus))
+                            .doOnSuccess(updatedBooking -> popularDestinations.bookingStatusChanged(updatedBooking, previousStatus))
+                            .doOnError(err -> !(err instanceof BookingConflictException),
+                                    err -> log.error("Error updating booking status for bookingId {}: {}", bookingId, err.getMessage(), err));
+                });
+    }
+
+    // A cancelled booking gives its seats back, reopening one takes them again (and can be sold out)
+    private Mono<Void> seatsForStatusChange(Booking booking, String previousStatus) {
+        boolean wasCancelled = CANCELLED.equalsIgnoreCase(previousStatus);
+        boolean isCancelled = CANCELLED.equalsIgnoreCase(booking.getStatus());
+
+        if (!wasCancelled && isCancelled) {
+            return inventoryService.release(booking.getDestination(), booking.getBookingDate(), booking.getNumberOfPeople());
+        }
+        if (wasCancelled && !isCancelled) {
+            return inventoryService.reserve(booking.getDestination(), booking.getBookingDate(), booking.getNumberOfPeople());
+        }
+        return Mono.empty();
+    }
+
+    // Served from the in-memory counters, no query runs here
+    @Override
+    public Mono<DashboardStats> getDashboardStats(Integer days) {
+        log.info("Received request for dashboard stats over {} days", days);
+
+        return Mono.fromSupplier(() -> dashboardCounters.stats(days))
+                .doOnSuccess(stats -> log.debug("Dashboard stats served, reconciled at {}", stats.getReconciledAt()));
+    }
+
+    @Override
+    public Flux<Booking> bookingCreations() {
+        log.info("Subscribing to created bookings");
+
+        return bookingEventPublisher.events()
+                .filter(event -> event.getType() == BookingEvent.Type.CREATED)
+                .map(BookingEvent::getBooking)
+                .doOnCancel(() -> log.debug("Created bookings subscription ended"));
+    }
+
+    @Override
+    public Mono<DestinationCapacity> setDestinationCapacity(String destination, LocalDate travelDate, Integer capacity) {
+        log.info("Received request to set capacity of {} on {} to {}", destination, travelDate, capacity);
+
+        return inventoryService.setCapacity(destination, travelDate, capacity)
+                .doOnSuccess(row -> log.info("Capacity of {} on {} is now {} ({} remaining)",
+                        destination, travelDate, row.getCapacity(), row.getRemaining()))
+                .doOnError(err -> log.error("Error setting capacity of {} on {}: {}", destination, travelDate, err.getMessage()));
     }
 
     @Override
@@ -249,7 +406,7 @@ public class AdminServiceImpl implements AdminService{
 
         return userRepository.findById(userId)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for userId: {}", userId))
-                .doOnNext(user -> log.debug("User found with ID: {} and email: {}", user.getUserId(), user.getEmail()))
+                .doOnNext(user -> log.debug("User found with ID: {} and email: {}", user.getUserId(), MaskedEmail.of(user.getEmail())))
 
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("No user found for userId: {}", userId);
@@ -257,8 +414,9 @@ public class AdminServiceImpl implements AdminService{
                 }))
 
                 .flatMap(user -> {
+                    String previousEmail = user.getEmail();
                     if (dto.getEmail() != null) {
-                        log.debug("Updating email of userId {} to '{}'", userId, dto.getEmail());
+                        log.debug("Updating email of userId {} to '{}'", userId, MaskedEmail.of(dto.getEmail()));
                         user.setEmail(dto.getEmail());
                     }
 
@@ -297,7 +455,9 @@ public class AdminServiceImpl implements AdminService{
                                                         return updatedDTO;
                                                     });
                                         });
-                            });
+                            })
+                            // Evict whatever got written, even if the profile save failed after the user save
+                            .doOnTerminate(() -> userCache.evict(userId, previousEmail, user.getEmail()));
                 })
                 .doOnError(err -> log.error("Error in updateUserById for userId {}: {}", userId, err.getMessage(), err));
     }
@@ -306,7 +466,7 @@ public class AdminServiceImpl implements AdminService{
     public Mono<String> deleteUserById(Long userId) {
         log.info("Attempting to delete user and related data for {}", userId);
 
-        return userRepository.findById(userId)
+        return userCache.findUserById(userId)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for {}", userId))
                 .doOnNext(user -> log.debug("User found with ID: {}", user.getUserId()))
 
@@ -317,8 +477,10 @@ public class AdminServiceImpl implements AdminService{
                 }))
 
                 .flatMap(user -> {
-                    log.debug("Deleting user with ID: {}", user.getUserId());
-                    return userRepository.delete(user)
+                    log.debug("Deleting user with ID: {} along with its bookings and profile", user.getUserId());
+                    return cascadingUserDeleter.delete(user)
+                            .doOnSuccess(v -> tokenDenylist.revoke(user.getEmail()))
+                            .doOnSuccess(v -> userCache.evict(user.getUserId(), user.getEmail()))
                             .doOnSuccess(v -> log.info("User deleted successfully with ID={}", user.getUserId()))
                             .doOnError(err -> log.error("Error deleting user ID {}: {}", user.getUserId(), err.getMessage()));
                 })
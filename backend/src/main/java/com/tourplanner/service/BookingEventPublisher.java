@@ -0,0 +1,61 @@
+package com.tourplanner.service;
+
+import com.tourplanner.dto.BookingEvent;
+import com.tourplanner.model.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/*
+    In-process fan-out of booking changes to the GraphQL subscriptions.
+
+    Services publish after the write has completed, so subscribers never see a booking
+    that isn't in the database. Every subscriber gets its own bounded buffer: a slow WebSocket
+    client loses its oldest events (booking.events.dropped) instead of holding up the
+    writer or the other subscribers. Events are not replayed, a client that (re)connects
+    reads the current state with a query first.
+
+    Only this instance's writes are seen; with several instances behind a load balancer
+    the sink would have to be fed from a shared broker instead.
+*/
+
+@Component
+@Slf4j
+public class BookingEventPublisher {
+    private final Sinks.Many<BookingEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final int bufferSize;
+    private final Counter dropped;
+
+    public BookingEventPublisher(MeterRegistry meterRegistry,
+                                 @Value("${tourplanner.subscriptions.buffer-size:256}") int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.dropped = meterRegistry.counter("booking.events.dropped");
+        meterRegistry.gauge("booking.events.subscribers", sink, Sinks.Many::currentSubscriberCount);
+    }
+
+    public void bookingCreated(Booking booking) {
+        publish(new BookingEvent(BookingEvent.Type.CREATED, booking));
+    }
+
+    public void bookingStatusChanged(Booking booking) {
+        publish(new BookingEvent(BookingEvent.Type.STATUS_CHANGED, booking));
+    }
+
+    public Flux<BookingEvent> events() {
+        return sink.asFlux()
+                .onBackpressureBuffer(bufferSize, event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    private void publish(BookingEvent event) {
+        // Concurrent writers: retry briefly instead of failing with FAIL_NON_SERIALIZED
+        sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        log.debug("Published {} for bookingId {}", event.getType(), event.getBooking().getBookingId());
+    }
+}
@@ -1,8 +1,17 @@
 package com.tourplanner.service;
 
 import com.tourplanner.dto.BookingDTO;
+import com.tourplanner.dto.Connection;
+import com.tourplanner.dto.PopularDestination;
+import com.tourplanner.model.Booking;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface BookingService {
     Mono<BookingDTO> createBooking(BookingDTO bookingDTO, String email);
+    Mono<BookingDTO> createBooking(BookingDTO bookingDTO, String email, String idempotencyKey);
+    Flux<Booking> bookingStatusChanges(String email);
+    Mono<Connection<Booking>> getBookingsPage(Integer first, String after, String status, String fromDate, String toDate, String destination);
+    Mono<Connection<Booking>> getBookingsPageForUser(String email, Integer first, String after, String status, String fromDate, String toDate, String destination);
+    Flux<PopularDestination> getPopularDestinations(Integer window, Integer k);
 }
@@ -1,25 +1,67 @@
 package com.tourplanner.service;
 
 import com.tourplanner.dto.BookingDTO;
+import com.tourplanner.dto.BookingEvent;
+import com.tourplanner.dto.BookingFilter;
+import com.tourplanner.dto.Connection;
+import com.tourplanner.dto.Edge;
+import com.tourplanner.dto.PageInfo;
+import com.tourplanner.dto.PopularDestination;
+import com.tourplanner.exception.InvalidCursorException;
+import com.tourplanner.exception.InvalidFilterException;
+import com.tourplanner.exception.SoldOutException;
 import com.tourplanner.exception.UserNotFoundException;
+import com.tourplanner.logging.MaskedEmail;
 import com.tourplanner.model.Booking;
+import com.tourplanner.repository.BookingPageRepository;
 import com.tourplanner.repository.BookingRepository;
-import com.tourplanner.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
 @Service
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_POPULARITY_WINDOW = 7;
+    private static final int DEFAULT_POPULARITY_K = 5;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private BookingPageRepository bookingPageRepository;
+
+    @Autowired
+    private BookingEventPublisher bookingEventPublisher;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private PopularDestinations popularDestinations;
+
     private BookingDTO mapToDto(Booking booking) {
         BookingDTO dto = new BookingDTO();
         dto.setDestination(booking.getDestination());
@@ -38,22 +80,21 @@ public class BookingServiceImpl implements BookingService {
         return booking;
     }
 
-    private String maskEmail(String email) {
-        if(email == null || !email.contains("@")) return "hidden";
-        String[] parts = email.split("@");
-        String name = parts[0];
-        if(name.length() <= 2) return "***@" + parts[1];
-        return name.charAt(0) + "***@" + parts[1];
+    // A retry with the same key gets the first booking back instead of booking again
+    @Override
+    public Mono<BookingDTO> createBooking(BookingDTO bookingDTO, String email, String idempotencyKey) {
+        return idempotencyStore.execute("createBooking:" + email, idempotencyKey, bookingDTO, BookingDTO.class,
+                () -> createBooking(bookingDTO, email));
     }
 
     @Override
     public Mono<BookingDTO> createBooking(BookingDTO bookingDTO, String email) {
-        String maskedEmail = maskEmail(email);
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
         log.info("Received request to create booking for user: {}", maskedEmail);
 
         Booking booking = mapToEntity(bookingDTO);
 
-        return userRepository.findByEmail(email)
+        return userCache.findUserByEmail(email)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for {}", maskedEmail))
                 .doOnNext(user -> log.debug("User found with ID: {}", user.getUserId()))
 
@@ -66,14 +107,143 @@ public class BookingServiceImpl implements BookingService {
                 .flatMap(user -> {
                     log.debug("Setting userId {} for booking", user.getUserId());
                     booking.setUserId(user.getUserId());
-                    return bookingRepository.save(booking)
+                    // Seats and booking row commit together, a failed insert gives the seats back
+                    return inventoryService.reserve(booking.getDestination(), booking.getBookingDate(), booking.getNumberOfPeople())
+                            .then(bookingRepository.save(booking))
+                            .as(transactionalOperator::transactional)
                             .doOnSuccess(savedBooking -> log.info("Booking created successfully with ID: {}", savedBooking.getBookingId()))
-                            .doOnError(err -> log.error("Error saving booking for {}: {}", maskedEmail, err.getMessage(), err));
+                            .doOnSuccess(bookingEventPublisher::bookingCreated)
+                            .doOnSuccess(dashboardCounters::bookingCreated)
+                            .doOnSuccess(popularDestinations::bookingCreated)
+                            // Running out of seats is an expected outcome, not a failure worth a stack trace
+                            .doOnError(SoldOutException.class, err -> log.info("Booking for {} not created: {}", maskedEmail, err.getMessage()))
+                            .doOnError(err -> !(err instanceof SoldOutException),
+                                    err -> log.error("Error saving booking for {}: {}", maskedEmail, err.getMessage(), err));
                 })
 
                 .map(this::mapToDto)
                 .doOnSuccess(dto -> log.info("Booking mapped to DTO successfully for {}", maskedEmail))
-                .doOnError(err -> log.error("Error creating booking for {}: {}", maskedEmail, err.getMessage(), err));
+                .doOnError(err -> !(err instanceof SoldOutException),
+                        err -> log.error("Error creating booking for {}: {}", maskedEmail, err.getMessage(), err));
+
+    }
+
+    @Override
+    public Flux<Booking> bookingStatusChanges(String email) {
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
+        log.info("Subscribing to booking status changes for user: {}", maskedEmail);
+
+        return userCache.findUserByEmail(email)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("No user found for email: {}", maskedEmail);
+                    return Mono.error(new UserNotFoundException("User not found with email: " + email));
+                }))
+                .flatMapMany(user -> bookingEventPublisher.events()
+                        .filter(event -> event.getType() == BookingEvent.Type.STATUS_CHANGED)
+                        .map(BookingEvent::getBooking)
+                        .filter(booking -> user.getUserId().equals(booking.getUserId())))
+                .doOnCancel(() -> log.debug("Booking status subscription ended for {}", maskedEmail));
+    }
+
+    // Ranked in memory (PopularDestinations), no query runs here
+    @Override
+    public Flux<PopularDestination> getPopularDestinations(Integer window, Integer k) {
+        log.debug("Fetching top {} destinations of the last {} days", k, window);
+
+        return Flux.defer(() -> Flux.fromIterable(popularDestinations.top(
+                window == null ? DEFAULT_POPULARITY_WINDOW : window, k == null ? DEFAULT_POPULARITY_K : k)));
+    }
+
+    @Override
+    public Mono<Connection<Booking>> getBookingsPage(Integer first, String after, String status, String fromDate, String toDate, String destination) {
+        log.info("Fetching page of bookings, first: {}, status: {}, fromDate: {}, toDate: {}, destination: {}",
+                first, status, fromDate, toDate, destination);
+
+        return Mono.fromCallable(() -> toFilter(null, status, fromDate, toDate, destination))
+                .flatMap(filter -> getPage(filter, first, after));
+    }
+
+    @Override
+    public Mono<Connection<Booking>> getBookingsPageForUser(String email, Integer first, String after, String status, String fromDate, String toDate, String destination) {
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
+        log.info("Fetching page of bookings for user: {}, first: {}", maskedEmail, first);
+
+        return userCache.findUserByEmail(email)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("No user found for email: {}", maskedEmail);
+                    return Mono.error(new UserNotFoundException("User not found with email: " + email));
+                }))
+                .map(user -> toFilter(user.getUserId(), status, fromDate, toDate, destination))
+                .flatMap(filter -> getPage(filter, first, after));
+    }
+
+    private Mono<Connection<Booking>> getPage(BookingFilter filter, Integer first, String after) {
+        int pageSize = pageSize(first);
+
+        // Cursor = (created_at, booking_id) of the last row; one extra row tells whether another page exists.
+        // Decoded inside defer so a bad cursor becomes an error signal
+        return Flux.defer(() -> {
+                    if (after == null) return bookingPageRepository.findPage(filter, null, null, pageSize + 1);
+                    String[] keys = CursorCodec.decode(after, 2);
+                    return bookingPageRepository.findPage(filter, parseCursorTime(keys[0], after), parseCursorId(keys[1], after), pageSize + 1);
+                })
+                .collectList()
+                .map(bookings -> {
+                    boolean hasNextPage = bookings.size() > pageSize;
+                    List<Booking> page = hasNextPage ? bookings.subList(0, pageSize) : bookings;
+
+                    List<Edge<Booking>> edges = page.stream()
+                            .map(booking -> new Edge<>(booking, cursorOf(booking)))
+                            .toList();
+                    String startCursor = edges.isEmpty() ? null : edges.get(0).getCursor();
+                    String endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
+                    return new Connection<>(edges, new PageInfo(hasNextPage, after != null, startCursor, endCursor));
+                })
+                .doOnSuccess(connection -> log.debug("Fetched {} bookings, hasNextPage: {}",
+                        connection.getEdges().size(), connection.getPageInfo().isHasNextPage()))
+                .doOnError(err -> log.error("Error fetching bookings page: {}", err.getMessage(), err));
+    }
+
+    private static String cursorOf(Booking booking) {
+        return CursorCodec.encode(booking.getCreatedAt(), booking.getBookingId());
+    }
+
+    private static LocalDateTime parseCursorTime(String value, String cursor) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static Long parseCursorId(String value, String cursor) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static BookingFilter toFilter(Long userId, String status, String fromDate, String toDate, String destination) {
+        LocalDate from = parseDate("fromDate", fromDate);
+        LocalDate to = parseDate("toDate", toDate);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidFilterException("fromDate must not be after toDate");
+        }
+        return new BookingFilter(userId, status, from, to, destination);
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidFilterException(name + " must be a date like 2025-11-01, got: " + value);
+        }
+    }
 
+    private int pageSize(Integer first) {
+        if (first == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(first, MAX_PAGE_SIZE));
     }
 }
@@ -0,0 +1,66 @@
+package com.tourplanner.service;
+
+import com.tourplanner.model.Booking;
+import com.tourplanner.model.User;
+import com.tourplanner.repository.BookingRepository;
+import com.tourplanner.repository.ProfileRepository;
+import com.tourplanner.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/*
+    Deletes a user together with its bookings and profile in one transaction.
+    Children go first with one DELETE ... WHERE user_id = ? each, then the seats of the bookings
+    are given back (InventoryService.releaseBookings) and the user row goes last, so nothing is
+    left behind if any of the statements fails.
+    The bookings are read first so the dashboard counters and the popular destinations can drop
+    them once the delete committed.
+*/
+
+@Component
+@Slf4j
+public class CascadingUserDeleter {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private PopularDestinations popularDestinations;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    public Mono<Void> delete(User user) {
+        Long userId = user.getUserId();
+
+        return bookingRepository.findByUserId(userId)
+                .collectList()
+                .flatMap(bookings -> bookingRepository.deleteByUserId(userId)
+                        .doOnNext(count -> log.debug("Deleted {} bookings for userId {}", count, userId))
+                        .then(profileRepository.deleteByUserId(userId))
+                        .doOnNext(count -> log.debug("Deleted {} profiles for userId {}", count, userId))
+                        .then(inventoryService.releaseBookings(bookings))
+                        .then(userRepository.delete(user))
+                        .thenReturn(bookings))
+                .as(transactionalOperator::transactional)
+                .doOnNext(bookings -> dashboardCounters.userDeleted(user, bookings))
+                .doOnNext(popularDestinations::bookingsDeleted)
+                .then();
+    }
+}
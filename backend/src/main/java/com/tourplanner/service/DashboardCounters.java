@@ -0,0 +1,234 @@
+package com.tourplanner.service;
+
+import com.tourplanner.dto.DashboardStats;
+import com.tourplanner.model.Booking;
+import com.tourplanner.model.User;
+import com.tourplanner.model.UserType;
+import com.tourplanner.repository.DashboardStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    The admin dashboard figures kept as counters in memory, so a dashboard read costs the
+    same with ten bookings or ten million: users and admins, bookings by status, revenue
+    (rate * numberOfPeople, cancelled bookings excluded) by destination and bookings created
+    per day for the last `days` days.
+
+    The services move the counters after each committed write: createBooking,
+    updateUserBooking, registerUser and the user deletes (CascadingUserDeleter).
+    Anything that bypasses them (SQL run by hand, OrphanCompactionJob, other instances)
+    is picked up by the reconciliation, which rebuilds every counter from the SQL
+    aggregates at startup and then every reconcile-interval and swaps them in at once.
+    A write that commits while a rebuild is running may be missed until the next one.
+*/
+
+@Component
+@Slf4j
+public class DashboardCounters {
+    private static final String CANCELLED = "CANCELLED";
+
+    private final DashboardStatsRepository dashboardStatsRepository;
+    private final boolean reconcileAtStartup;
+    private final int days;
+    private final Counter corrections;
+
+    private volatile Counters counters = new Counters();
+    private volatile LocalDateTime reconciledAt;
+
+    public DashboardCounters(DashboardStatsRepository dashboardStatsRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${tourplanner.dashboard.reconcile-at-startup:true}") boolean reconcileAtStartup,
+                             @Value("${tourplanner.dashboard.days:30}") int days) {
+        this.dashboardStatsRepository = dashboardStatsRepository;
+        this.reconcileAtStartup = reconcileAtStartup;
+        this.days = days;
+        this.corrections = meterRegistry.counter("dashboard.reconcile.corrections");
+    }
+
+    // ---- incremental updates, called after the write has committed
+
+    public void userRegistered(User user) {
+        counters.users(user.getUserType()).increment();
+    }
+
+    public void userDeleted(User user, List<Booking> bookings) {
+        Counters current = counters;
+        current.users(user.getUserType()).decrement();
+        for (Booking booking : bookings) {
+            current.removeBooking(booking);
+        }
+    }
+
+    public void bookingCreated(Booking booking) {
+        Counters current = counters;
+        current.addBooking(booking);
+        LocalDate day = createdOn(booking);
+        if (day != null) {
+            current.perDay.computeIfAbsent(day, key -> new LongAdder()).increment();
+        }
+    }
+
+    public void bookingStatusChanged(Booking booking, String previousStatus) {
+        Counters current = counters;
+        current.byStatus(previousStatus).decrement();
+        current.byStatus(booking.getStatus()).increment();
+
+        boolean wasCancelled = CANCELLED.equalsIgnoreCase(previousStatus);
+        boolean isCancelled = CANCELLED.equalsIgnoreCase(booking.getStatus());
+        if (wasCancelled != isCancelled) {
+            current.revenue(booking.getDestination()).add(isCancelled ? -revenueOf(booking) : revenueOf(booking));
+        }
+    }
+
+    // ---- reads
+
+    // requestedDays is capped at the days kept; days without bookings are listed with 0
+    public DashboardStats stats(Integer requestedDays) {
+        Counters current = counters;
+        int window = requestedDays == null ? days : Math.max(1, Math.min(requestedDays, days));
+
+        List<DashboardStats.StatusCount> byStatus = new ArrayList<>();
+        current.byStatus.forEach((status, count) -> {
+            if (count.sum() != 0) byStatus.add(new DashboardStats.StatusCount(status, count.sum()));
+        });
+        byStatus.sort(Comparator.comparing(DashboardStats.StatusCount::getStatus));
+
+        List<DashboardStats.DestinationRevenue> revenue = new ArrayList<>();
+        current.revenueByDestination.forEach((destination, sum) -> {
+            if (sum.sum() != 0) revenue.add(new DashboardStats.DestinationRevenue(destination, sum.sum()));
+        });
+        revenue.sort(Comparator.comparingLong(DashboardStats.DestinationRevenue::getRevenue).reversed());
+
+        List<DashboardStats.DayCount> perDay = new ArrayList<>(window);
+        LocalDate today = LocalDate.now();
+        for (LocalDate day = today.minusDays(window - 1); !day.isAfter(today); day = day.plusDays(1)) {
+            LongAdder count = current.perDay.get(day);
+            perDay.add(new DashboardStats.DayCount(day, count == null ? 0 : count.sum()));
+        }
+
+        return new DashboardStats(current.users.sum(), current.admins.sum(), byStatus, revenue, perDay, reconciledAt);
+    }
+
+    // ---- reconciliation
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAtStartup() {
+        if (reconcileAtStartup) {
+            scheduledReconcile();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tourplanner.dashboard.reconcile-interval:15m}",
+            fixedDelayString = "${tourplanner.dashboard.reconcile-interval:15m}")
+    public void scheduledReconcile() {
+        reconcile().subscribe(
+                unused -> { },
+                err -> log.error("Dashboard counter reconciliation failed: {}", err.getMessage(), err));
+    }
+
+    public Mono<Void> reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate firstDay = startedAt.toLocalDate().minusDays(days - 1);
+
+        return Mono.zip(
+                        dashboardStatsRepository.countUsersByType(),
+                        dashboardStatsRepository.countBookingsByStatus(),
+                        dashboardStatsRepository.revenueByDestination(),
+                        dashboardStatsRepository.countBookingsPerDay(firstDay.atStartOfDay()))
+                .doOnSubscribe(sub -> log.debug("Reconciling dashboard counters"))
+                .doOnNext(aggregates -> {
+                    Counters rebuilt = new Counters();
+                    aggregates.getT1().forEach((userType, count) -> rebuilt.users(userType).add(count));
+                    aggregates.getT2().forEach((status, count) -> rebuilt.byStatus(status).add(count));
+                    aggregates.getT3().forEach((destination, sum) -> rebuilt.revenue(destination).add(sum));
+                    aggregates.getT4().forEach((day, count) -> rebuilt.perDay.computeIfAbsent(day, key -> new LongAdder()).add(count));
+
+                    Counters previous = counters;
+                    counters = rebuilt;
+                    if (reconciledAt != null && !previous.sameTotals(rebuilt)) {
+                        corrections.increment();
+                        log.info("Dashboard counters corrected: {} users, {} bookings in memory, {} users, {} bookings in the database",
+                                previous.users.sum() + previous.admins.sum(), previous.totalBookings(),
+                                rebuilt.users.sum() + rebuilt.admins.sum(), rebuilt.totalBookings());
+                    }
+                    reconciledAt = startedAt;
+                    log.debug("Dashboard counters reconciled");
+                })
+                .then();
+    }
+
+    private static LocalDate createdOn(Booking booking) {
+        return booking.getCreatedAt() == null ? null : booking.getCreatedAt().toLocalDate();
+    }
+
+    private static long revenueOf(Booking booking) {
+        long rate = booking.getRate() == null ? 0 : booking.getRate();
+        long people = booking.getNumberOfPeople() == null ? 0 : booking.getNumberOfPeople();
+        return rate * people;
+    }
+
+    // One generation of counters, replaced as a whole by each reconciliation
+    private static class Counters {
+        private final LongAdder users = new LongAdder();
+        private final LongAdder admins = new LongAdder();
+        private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> revenueByDestination = new ConcurrentHashMap<>();
+        private final Map<LocalDate, LongAdder> perDay = new ConcurrentHashMap<>();
+
+        LongAdder users(String userType) {
+            return UserType.ADMIN.toString().equalsIgnoreCase(userType) ? admins : users;
+        }
+
+        LongAdder byStatus(String status) {
+            return byStatus.computeIfAbsent(status == null ? "" : status, key -> new LongAdder());
+        }
+
+        LongAdder revenue(String destination) {
+            return revenueByDestination.computeIfAbsent(destination == null ? "" : destination, key -> new LongAdder());
+        }
+
+        void addBooking(Booking booking) {
+            byStatus(booking.getStatus()).increment();
+            if (!CANCELLED.equalsIgnoreCase(booking.getStatus())) {
+                revenue(booking.getDestination()).add(revenueOf(booking));
+            }
+        }
+
+        void removeBooking(Booking booking) {
+            byStatus(booking.getStatus()).decrement();
+            if (!CANCELLED.equalsIgnoreCase(booking.getStatus())) {
+                revenue(booking.getDestination()).add(-revenueOf(booking));
+            }
+            LocalDate day = createdOn(booking);
+            LongAdder count = day == null ? null : perDay.get(day);
+            if (count != null) {
+                count.decrement();
+            }
+        }
+
+        long totalBookings() {
+            return byStatus.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        boolean sameTotals(Counters other) {
+            return users.sum() == other.users.sum() && admins.sum() == other.admins.sum()
+                    && totalBookings() == other.totalBookings();
+        }
+    }
+}
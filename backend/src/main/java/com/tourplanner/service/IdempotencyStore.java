@@ -0,0 +1,172 @@
+package com.tourplanner.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tourplanner.exception.IdempotencyKeyException;
+import com.tourplanner.model.IdempotencyRecord;
+import com.tourplanner.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/*
+    Replays the result of a mutation the client sent again with the same idempotency key,
+    instead of running it twice (a retried createBooking would otherwise book twice).
+
+    Two layers, both kept for tourplanner.idempotency.ttl:
+    - a bounded Caffeine map of key -> cached Mono. Concurrent duplicates get the same Mono,
+      so they share one execution; later repeats on this node get its result without I/O.
+    - the idempotency_keys table, so a retry that lands on another node or after a restart
+      still gets the stored result instead of a second booking.
+
+    A key is scoped to the operation and its caller, and remembers a hash of the request:
+    the same key with a different request is refused. Failures are not remembered,
+    the client may retry them with the same key.
+*/
+
+@Component
+@Slf4j
+public class IdempotencyStore {
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${tourplanner.idempotency.max-size:10000}") long maxSize,
+                            @Value("${tourplanner.idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.entries = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, Entry>build(), "idempotency");
+    }
+
+    // Without a key the action simply runs
+    public <T> Mono<T> execute(String scope, String idempotencyKey, Object request, Class<T> type, Supplier<Mono<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return Mono.defer(action);
+        }
+        return Mono.defer(() -> {
+            if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+                return Mono.error(new IdempotencyKeyException("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters"));
+            }
+            String requestHash = hash(request);
+            String cacheKey = scope + '\n' + idempotencyKey;
+
+            boolean[] created = {false};
+            Entry entry = entries.get(cacheKey, k -> {
+                created[0] = true;
+                return new Entry(requestHash, load(scope, idempotencyKey, requestHash, type, action).cache());
+            });
+
+            if (!entry.requestHash().equals(requestHash)) {
+                return Mono.error(reused(idempotencyKey));
+            }
+            if (!created[0]) {
+                log.debug("Replaying in-memory result for idempotency key {} of {}", idempotencyKey, scope);
+                meterRegistry.counter("idempotency.requests", "result", "replayed_memory").increment();
+            }
+            return entry.result()
+                    .cast(type)
+                    // Let the client retry a failure with the same key
+                    .doOnError(err -> entries.asMap().remove(cacheKey, entry));
+        });
+    }
+
+    private <T> Mono<T> load(String scope, String idempotencyKey, String requestHash, Class<T> type, Supplier<Mono<T>> action) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return idempotencyKeyRepository.find(scope, idempotencyKey, now)
+                .flatMap(record -> {
+                    if (!record.getRequestHash().equals(requestHash)) {
+                        return Mono.error(reused(idempotencyKey));
+                    }
+                    log.debug("Replaying stored result for idempotency key {} of {}", idempotencyKey, scope);
+                    meterRegistry.counter("idempotency.requests", "result", "replayed_database").increment();
+                    return Mono.just(read(record.getResponse(), type));
+                })
+                .switchIfEmpty(Mono.defer(() -> action.get()
+                        .flatMap(result -> store(scope, idempotencyKey, requestHash, result, now).thenReturn(result))
+                        .doOnSuccess(result -> meterRegistry.counter("idempotency.requests", "result", "executed").increment())));
+    }
+
+    // The mutation already happened, failing to remember it must not turn it into an error
+    private Mono<Long> store(String scope, String idempotencyKey, String requestHash, Object result, LocalDateTime now) {
+        return Mono.fromCallable(() -> new IdempotencyRecord(scope, idempotencyKey, requestHash, write(result), now.plus(ttl)))
+                .flatMap(record -> idempotencyKeyRepository.save(record, now))
+                .onErrorResume(err -> {
+                    log.warn("Could not store result for idempotency key {} of {}: {}", idempotencyKey, scope, err.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    @Scheduled(initialDelayString = "${tourplanner.idempotency.purge-interval:10m}",
+            fixedDelayString = "${tourplanner.idempotency.purge-interval:10m}")
+    public void scheduledPurge() {
+        purgeExpired().subscribe(
+                purged -> log.debug("Purged {} expired idempotency keys", purged),
+                err -> log.error("Idempotency key purge failed: {}", err.getMessage(), err));
+    }
+
+    public Mono<Long> purgeExpired() {
+        return Mono.defer(() -> idempotencyKeyRepository.deleteExpired(LocalDateTime.now(), PURGE_BATCH_SIZE))
+                .repeat()
+                .takeUntil(deleted -> deleted < PURGE_BATCH_SIZE)
+                .reduce(0L, Long::sum);
+    }
+
+    private static IdempotencyKeyException reused(String idempotencyKey) {
+        return new IdempotencyKeyException("Idempotency key " + idempotencyKey + " was already used for a different request");
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private String write(Object result) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(result);
+    }
+
+    private <T> T read(String response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private record Entry(String requestHash, Mono<?> result) {
+    }
+}
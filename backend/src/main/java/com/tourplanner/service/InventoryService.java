@@ -0,0 +1,177 @@
+package com.tourplanner.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tourplanner.exception.InvalidBookingException;
+import com.tourplanner.exception.SoldOutException;
+import com.tourplanner.model.Booking;
+import com.tourplanner.model.DestinationCapacity;
+import com.tourplanner.repository.DestinationCapacityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Seats per destination and travel date.
+
+    The database decides: a reservation is one conditional UPDATE ... WHERE remaining >= seats
+    (DestinationCapacityRepository), which can't oversell no matter how many requests or nodes
+    race for the last seats. Callers run it in the same transaction as the booking insert,
+    so a failed insert gives the seats back.
+
+    In front of it sits a lock-free hint per key: the remaining count last seen in the database,
+    an AtomicInteger kept for hint-ttl and decremented on every local reservation. Once a date is
+    (nearly) sold out, requests that can't fit fail here without a round trip or a row lock wait.
+    The hint only ever refuses early, it never lets a reservation skip the UPDATE. Seats released
+    on another node show up when the hint expires.
+
+    A date without a row starts with tourplanner.inventory.default-capacity seats.
+*/
+
+@Component
+@Slf4j
+public class InventoryService {
+    private static final String CANCELLED = "CANCELLED";
+
+    private final DestinationCapacityRepository destinationCapacityRepository;
+    private final Cache<CapacityKey, AtomicInteger> remainingHints;
+    private final int defaultCapacity;
+    private final MeterRegistry meterRegistry;
+
+    public InventoryService(DestinationCapacityRepository destinationCapacityRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${tourplanner.inventory.default-capacity:50}") int defaultCapacity,
+                            @Value("${tourplanner.inventory.hint-ttl:2s}") Duration hintTtl) {
+        this.destinationCapacityRepository = destinationCapacityRepository;
+        this.meterRegistry = meterRegistry;
+        this.defaultCapacity = defaultCapacity;
+        this.remainingHints = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(hintTtl)
+                .build();
+    }
+
+    public Mono<Void> reserve(String destination, LocalDate travelDate, Integer seats) {
+        return Mono.defer(() -> {
+            validate(destination, travelDate, seats);
+            CapacityKey key = new CapacityKey(destination, travelDate);
+
+            AtomicInteger hint = remainingHints.getIfPresent(key);
+            if (hint != null && hint.get() < seats) {
+                log.debug("{} on {} sold out per local hint ({} left), {} seats refused", destination, travelDate, hint.get(), seats);
+                return soldOut(key, seats, "hint");
+            }
+
+            return destinationCapacityRepository.reserve(destination, travelDate, seats)
+                    .flatMap(reserved -> reserved
+                            ? Mono.just(true)
+                            : destinationCapacityRepository.insertIfMissing(destination, travelDate, defaultCapacity)
+                                    .flatMap(inserted -> inserted > 0
+                                            ? destinationCapacityRepository.reserve(destination, travelDate, seats)
+                                            : Mono.just(false)))
+                    .flatMap(reserved -> {
+                        if (reserved) {
+                            AtomicInteger current = remainingHints.getIfPresent(key);
+                            if (current != null) current.addAndGet(-seats);
+                            meterRegistry.counter("inventory.reservations", "result", "reserved").increment();
+                            log.debug("Reserved {} seats for {} on {}", seats, destination, travelDate);
+                            return Mono.<Void>empty();
+                        }
+                        return destinationCapacityRepository.find(destination, travelDate)
+                                .doOnNext(row -> remainingHints.put(key, new AtomicInteger(row.getRemaining())))
+                                .then(soldOut(key, seats, "database"));
+                    });
+        });
+    }
+
+    public Mono<Void> release(String destination, LocalDate travelDate, Integer seats) {
+        return Mono.defer(() -> {
+            validate(destination, travelDate, seats);
+            return destinationCapacityRepository.release(destination, travelDate, seats)
+                    .doOnNext(rows -> {
+                        remainingHints.invalidate(new CapacityKey(destination, travelDate));
+                        log.debug("Released {} seats for {} on {}", seats, destination, travelDate);
+                    })
+                    .then();
+        });
+    }
+
+    /*
+        Gives back the seats of bookings that are being deleted, one UPDATE per destination and date.
+        Cancelled bookings already gave theirs back; rows without a destination, date or party size
+        never took any. Keys go in a fixed order so two deletes can't lock the same rows crosswise.
+    */
+    public Mono<Void> releaseBookings(Collection<Booking> bookings) {
+        return Mono.defer(() -> {
+            Map<CapacityKey, Integer> seats = new TreeMap<>(Comparator.comparing(CapacityKey::destination).thenComparing(CapacityKey::travelDate));
+            for (Booking booking : bookings) {
+                if (CANCELLED.equalsIgnoreCase(booking.getStatus()) || booking.getDestination() == null || booking.getDestination().isBlank()
+                        || booking.getBookingDate() == null || booking.getNumberOfPeople() == null || booking.getNumberOfPeople() < 1) {
+                    continue;
+                }
+                seats.merge(new CapacityKey(booking.getDestination(), booking.getBookingDate()), booking.getNumberOfPeople(), Integer::sum);
+            }
+            return Flux.fromIterable(seats.entrySet())
+                    .concatMap(entry -> release(entry.getKey().destination(), entry.getKey().travelDate(), entry.getValue()))
+                    .then();
+        });
+    }
+
+    public Mono<DestinationCapacity> setCapacity(String destination, LocalDate travelDate, Integer capacity) {
+        return Mono.defer(() -> {
+            if (capacity == null || capacity < 0) {
+                return Mono.error(new InvalidBookingException("Capacity must be zero or more"));
+            }
+            validate(destination, travelDate, 1);
+            log.info("Setting capacity of {} on {} to {}", destination, travelDate, capacity);
+
+            return destinationCapacityRepository.updateCapacity(destination, travelDate, capacity)
+                    .flatMap(updated -> updated
+                            ? Mono.<Long>empty()
+                            : destinationCapacityRepository.insertIfMissing(destination, travelDate, capacity))
+                    .then(destinationCapacityRepository.find(destination, travelDate))
+                    .flatMap(row -> {
+                        // MySQL reports 0 affected rows for an UPDATE that changes nothing, so compare with what's stored
+                        if (!row.getCapacity().equals(capacity)) {
+                            int booked = row.getCapacity() - row.getRemaining();
+                            return Mono.error(new InvalidBookingException("Capacity " + capacity + " is below the " + booked +
+                                    " seats already booked for " + destination + " on " + travelDate));
+                        }
+                        return Mono.just(row);
+                    })
+                    .doOnSuccess(row -> remainingHints.invalidate(new CapacityKey(destination, travelDate)));
+        });
+    }
+
+    private Mono<Void> soldOut(CapacityKey key, int seats, String source) {
+        meterRegistry.counter("inventory.reservations", "result", "sold_out_" + source).increment();
+        return Mono.error(new SoldOutException("Not enough seats left for " + key.destination() + " on " + key.travelDate() +
+                " (requested " + seats + ")"));
+    }
+
+    private static void validate(String destination, LocalDate travelDate, Integer seats) {
+        if (destination == null || destination.isBlank()) {
+            throw new InvalidBookingException("Destination is required");
+        }
+        if (travelDate == null) {
+            throw new InvalidBookingException("Booking date is required");
+        }
+        if (seats == null || seats < 1) {
+            throw new InvalidBookingException("Number of people must be at least 1");
+        }
+    }
+
+    private record CapacityKey(String destination, LocalDate travelDate) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.tourplanner.service;
+
+import com.tourplanner.model.Booking;
+import com.tourplanner.repository.BookingRepository;
+import com.tourplanner.repository.ProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+    Purges bookings and profiles left behind by users deleted before the cascading delete existed.
+    The seats of purged bookings go back to destination_capacity in the same transaction as their delete.
+
+    Works in small batches: select up to batch-size orphan ids, delete them by primary key,
+    then pause before the next batch so the job never holds locks or the connection pool
+    long enough to slow down live requests. A run stops when a batch comes back short
+    or after max-batches-per-run, the next run picks up the rest.
+*/
+
+@Component
+@Slf4j
+public class OrphanCompactionJob {
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Value("${tourplanner.compaction.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tourplanner.compaction.batch-size:500}")
+    private int batchSize;
+
+    @Value("${tourplanner.compaction.pause-between-batches:200ms}")
+    private Duration pauseBetweenBatches;
+
+    @Value("${tourplanner.compaction.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(initialDelayString = "${tourplanner.compaction.initial-delay:5m}",
+            fixedDelayString = "${tourplanner.compaction.interval:1h}")
+    public void scheduledRun() {
+        if (!enabled) return;
+
+        // Skip this tick if the previous run is still going
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Orphan compaction still running, skipping this run");
+            return;
+        }
+
+        purgeOrphans()
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        purged -> log.info("Orphan compaction purged {} rows", purged),
+                        err -> log.error("Orphan compaction failed: {}", err.getMessage(), err));
+    }
+
+    public Mono<Long> purgeOrphans() {
+        // One table after the other, never both at once
+        return purgeInBatches("bookings", () -> bookingRepository.findOrphanBookings(batchSize), this::deleteBookings)
+                .flatMap(bookings -> purgeInBatches("profiles", () -> profileRepository.findOrphanProfileIds(batchSize), profileRepository::deleteByProfileIdIn)
+                        .map(profiles -> bookings + profiles));
+    }
+
+    private Mono<Long> deleteBookings(List<Booking> bookings) {
+        List<Long> ids = bookings.stream().map(Booking::getBookingId).toList();
+        return bookingRepository.deleteByBookingIdIn(ids)
+                .flatMap(deleted -> inventoryService.releaseBookings(bookings).thenReturn(deleted))
+                .as(transactionalOperator::transactional);
+    }
+
+    private <T> Mono<Long> purgeInBatches(String table, Supplier<Flux<T>> findBatch, Function<List<T>, Mono<Long>> deleteBatch) {
+        Mono<Integer> oneBatch = Flux.defer(findBatch)
+                .collectList()
+                .flatMap(rows -> rows.isEmpty() ? Mono.just(0) : deleteBatch(table, rows, deleteBatch));
+
+        return oneBatch
+                .repeat(maxBatchesPerRun - 1L)
+                .takeUntil(found -> found < batchSize)
+                .reduce(0L, (total, found) -> total + found);
+    }
+
+    private <T> Mono<Integer> deleteBatch(String table, List<T> rows, Function<List<T>, Mono<Long>> deleteBatch) {
+        return deleteBatch.apply(rows)
+                .doOnNext(deleted -> log.debug("Purged {} orphan rows from {}", deleted, table))
+                .then(Mono.delay(pauseBetweenBatches))
+                .thenReturn(rows.size());
+    }
+}
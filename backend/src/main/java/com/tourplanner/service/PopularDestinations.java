@@ -0,0 +1,206 @@
+package com.tourplanner.service;
+
+import com.tourplanner.dto.PopularDestination;
+import com.tourplanner.model.Booking;
+import com.tourplanner.repository.DashboardStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Destinations ranked by travellers (number_of_people) booked over the last `window` days,
+    kept in memory so popularDestinations never reads the bookings table.
+
+    One Space-Saving summary per day (by createdAt), in a ring of `days` buckets: a bucket is
+    cleared when its slot is reused for a new day, so the window slides a day at a time.
+    A ranking merges the buckets of its window; it is kept per window until the next write
+    or the next day, so repeated reads only copy the first k entries.
+
+    Fed by createBooking, booking status changes (cancelling takes the travellers off,
+    reopening puts them back) and user deletes. The ring is rebuilt from the bookings table
+    at startup; writes committed while that query runs may be missed.
+*/
+
+@Component
+@Slf4j
+public class PopularDestinations {
+    private static final String CANCELLED = "CANCELLED";
+
+    private final DashboardStatsRepository dashboardStatsRepository;
+    private final boolean rebuildAtStartup;
+    private final int days;
+    private final int capacity;
+
+    private volatile Bucket[] buckets;
+    // Bumped on every change, a cached ranking is only served while it still matches
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Integer, Ranking> rankings = new ConcurrentHashMap<>();
+
+    public PopularDestinations(DashboardStatsRepository dashboardStatsRepository,
+                               @Value("${tourplanner.popularity.rebuild-at-startup:true}") boolean rebuildAtStartup,
+                               @Value("${tourplanner.popularity.days:30}") int days,
+                               @Value("${tourplanner.popularity.capacity:100}") int capacity) {
+        this.dashboardStatsRepository = dashboardStatsRepository;
+        this.rebuildAtStartup = rebuildAtStartup;
+        this.days = days;
+        this.capacity = capacity;
+        this.buckets = newRing();
+    }
+
+    // ---- updates, called after the write has committed
+
+    public void bookingCreated(Booking booking) {
+        if (!CANCELLED.equalsIgnoreCase(booking.getStatus())) {
+            add(buckets, booking, travellers(booking));
+        }
+    }
+
+    public void bookingStatusChanged(Booking booking, String previousStatus) {
+        boolean wasCancelled = CANCELLED.equalsIgnoreCase(previousStatus);
+        boolean isCancelled = CANCELLED.equalsIgnoreCase(booking.getStatus());
+        if (wasCancelled != isCancelled) {
+            add(buckets, booking, isCancelled ? -travellers(booking) : travellers(booking));
+        }
+    }
+
+    public void bookingsDeleted(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            if (!CANCELLED.equalsIgnoreCase(booking.getStatus())) {
+                add(buckets, booking, -travellers(booking));
+            }
+        }
+    }
+
+    // ---- reads
+
+    // The k destinations with the most travellers over the last `window` days, today included
+    public List<PopularDestination> top(int window, int k) {
+        int windowDays = Math.max(1, Math.min(window, days));
+        long today = LocalDate.now().toEpochDay();
+        long currentVersion = version.get();
+
+        Ranking ranking = rankings.get(windowDays);
+        if (ranking == null || ranking.version != currentVersion || ranking.today != today) {
+            ranking = new Ranking(currentVersion, today, merge(today - windowDays + 1, today));
+            rankings.put(windowDays, ranking);
+        }
+        List<PopularDestination> ranked = ranking.destinations;
+        return List.copyOf(ranked.subList(0, Math.max(0, Math.min(k, ranked.size()))));
+    }
+
+    private List<PopularDestination> merge(long firstDay, long lastDay) {
+        Map<String, long[]> totals = new HashMap<>();
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                if (bucket.epochDay < firstDay || bucket.epochDay > lastDay) continue;
+                bucket.summary.forEach((destination, count, error) -> {
+                    long[] total = totals.computeIfAbsent(destination, key -> new long[2]);
+                    total[0] += count;
+                    total[1] += error;
+                });
+            }
+        }
+
+        List<PopularDestination> ranked = new ArrayList<>(totals.size());
+        totals.forEach((destination, total) -> {
+            if (total[0] > 0) ranked.add(new PopularDestination(destination, total[0], total[1]));
+        });
+        ranked.sort(Comparator.comparingLong(PopularDestination::getTravellers).reversed()
+                .thenComparing(PopularDestination::getDestination));
+        return ranked.size() > capacity ? List.copyOf(ranked.subList(0, capacity)) : ranked;
+    }
+
+    // ---- rebuild
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAtStartup() {
+        if (rebuildAtStartup) {
+            rebuild().subscribe(
+                    unused -> { },
+                    err -> log.error("Rebuilding popular destinations failed: {}", err.getMessage(), err));
+        }
+    }
+
+    public Mono<Void> rebuild() {
+        LocalDate firstDay = LocalDate.now().minusDays(days - 1);
+
+        return dashboardStatsRepository.travellersPerDayAndDestination(firstDay.atStartOfDay())
+                .doOnSubscribe(sub -> log.debug("Rebuilding popular destinations from the last {} days of bookings", days))
+                .doOnNext(perDay -> {
+                    Bucket[] rebuilt = newRing();
+                    perDay.forEach((day, travellers) -> travellers.forEach((destination, count) ->
+                            add(rebuilt, day.toEpochDay(), destination, count)));
+                    buckets = rebuilt;
+                    version.incrementAndGet();
+                    log.info("Popular destinations rebuilt from {} days of bookings", perDay.size());
+                })
+                .then();
+    }
+
+    // ---- ring
+
+    private Bucket[] newRing() {
+        Bucket[] ring = new Bucket[days];
+        for (int i = 0; i < days; i++) {
+            ring[i] = new Bucket(new SpaceSaving(capacity));
+        }
+        return ring;
+    }
+
+    private void add(Bucket[] ring, Booking booking, long travellers) {
+        if (booking.getCreatedAt() != null) {
+            add(ring, booking.getCreatedAt().toLocalDate().toEpochDay(), booking.getDestination(), travellers);
+        }
+    }
+
+    private void add(Bucket[] ring, long epochDay, String destination, long travellers) {
+        long today = LocalDate.now().toEpochDay();
+        // Outside the days kept (or in the future): nothing to count it in
+        if (travellers == 0 || epochDay > today || epochDay <= today - days) return;
+
+        Bucket bucket = ring[(int) Math.floorMod(epochDay, (long) days)];
+        synchronized (bucket) {
+            if (bucket.epochDay != epochDay) {
+                if (bucket.epochDay > epochDay) return;
+                bucket.summary.clear();
+                bucket.epochDay = epochDay;
+            }
+            String key = destination == null ? "" : destination;
+            if (travellers > 0) {
+                bucket.summary.add(key, travellers);
+            } else {
+                bucket.summary.remove(key, -travellers);
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    private static long travellers(Booking booking) {
+        return booking.getNumberOfPeople() == null ? 0 : booking.getNumberOfPeople();
+    }
+
+    private static class Bucket {
+        private final SpaceSaving summary;
+        // Guarded by the bucket; Long.MIN_VALUE until the slot is first used
+        private long epochDay = Long.MIN_VALUE;
+
+        Bucket(SpaceSaving summary) {
+            this.summary = summary;
+        }
+    }
+
+    private record Ranking(long version, long today, List<PopularDestination> destinations) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.tourplanner.service;
+
+import com.tourplanner.model.Profile;
+import com.tourplanner.model.User;
+import com.tourplanner.repository.ProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/*
+    Loads profiles for many users at once instead of one findByUserId per user.
+    userIds are split into chunks of tourplanner.profile.batch-size and each chunk
+    becomes a single SELECT ... WHERE user_id IN (...) query.
+*/
+
+@Component
+@Slf4j
+public class ProfileBatchLoader {
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Value("${tourplanner.profile.batch-size:500}")
+    private int batchSize;
+
+    public Mono<Map<Long, Profile>> loadProfiles(Collection<Long> userIds) {
+        return Flux.fromIterable(userIds)
+                .distinct()
+                .buffer(batchSize)
+                .concatMap(chunk -> {
+                    log.debug("Loading profiles for a batch of {} users", chunk.size());
+                    return profileRepository.findByUserIdIn(chunk);
+                })
+                .collectMap(Profile::getUserId);
+    }
+
+    /*
+        Pairs every user of the stream with its profile, one IN query per chunk.
+        Users without a profile are skipped, same as the old per-row lookup did.
+        The order of the incoming stream is kept.
+    */
+    public <R> Flux<R> withProfiles(Flux<User> users, BiFunction<User, Profile, R> mapper) {
+        return users
+                .buffer(batchSize)
+                .concatMap(chunk -> loadProfiles(chunk.stream().map(User::getUserId).toList())
+                        .flatMapIterable(profiles -> chunk.stream()
+                                .filter(user -> profiles.containsKey(user.getUserId()))
+                                .map(user -> mapper.apply(user, profiles.get(user.getUserId())))
+                                .toList()));
+    }
+}
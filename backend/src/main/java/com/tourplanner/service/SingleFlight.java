@@ -0,0 +1,78 @@
+package com.tourplanner.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+    Single-flight for reads: concurrent callers asking for the same (method, key) while a query
+    for it is still running share that one query instead of each sending their own.
+    The entry is dropped as soon as the query completes, nothing is cached here
+    (UserCache does the caching, this only covers the misses that arrive together).
+
+    The shared query can't be cancelled by a single caller: when one subscriber goes away the
+    others still get the result. Once all of them have left the query is cancelled and its
+    entry dropped, so the next caller starts a new one.
+    It runs with the Reactor context of the caller that started it, so loaders must not depend
+    on per-request context (security context, etc.).
+
+    Results are handed to every caller as the same object, callers must not modify them.
+*/
+
+@Component
+@Slf4j
+public class SingleFlight {
+    private final MeterRegistry meterRegistry;
+    private final Map<FlightKey, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("singleflight.in-flight", Tags.empty(), inFlight);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String method, Object key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            FlightKey flightKey = new FlightKey(method, key);
+            boolean[] started = {false};
+
+            Mono<?> flight = inFlight.computeIfAbsent(flightKey, k -> {
+                started[0] = true;
+                return start(k, loader);
+            });
+
+            if (!started[0]) {
+                log.debug("Joining in-flight {} for {}", method, key);
+            }
+            meterRegistry.counter("singleflight.requests", "method", method, "result", started[0] ? "executed" : "coalesced").increment();
+            return (Mono<T>) flight;
+        });
+    }
+
+    private <T> Mono<T> start(FlightKey flightKey, Supplier<Mono<T>> loader) {
+        Mono<?>[] self = new Mono<?>[1];
+        Mono<T> flight = Mono.defer(loader)
+                // Dropped before the result reaches anyone: a caller reacting to it (say, evicting and
+                // reading again) must start a new query, not get this result back
+                .doOnTerminate(() -> inFlight.remove(flightKey, self[0]))
+                // share() cancels upstream when the last subscriber leaves, that flight must not be joined
+                .doFinally(signal -> inFlight.remove(flightKey, self[0]))
+                // Hot: one subscriber cancelling doesn't cancel the others
+                .share();
+        self[0] = flight;
+        return flight;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private record FlightKey(String method, Object key) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.tourplanner.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Space-Saving summary (Metwally et al.): weighted counts of at most `capacity` keys,
+    whatever the number of distinct keys in the stream.
+
+    A key that is tracked is counted exactly from the moment it got in. When the summary is
+    full, a new key replaces the smallest entry and starts from that entry's count, which is
+    kept as its error: the true count lies in [count - error, count]. Any key whose true
+    total exceeds (total weight / capacity) is guaranteed to be tracked.
+
+    Removals (a booking being cancelled) take weight off a tracked key, never below its
+    error; a key that isn't tracked any more has nothing to remove from.
+
+    Not thread-safe, callers synchronize.
+*/
+
+public class SpaceSaving {
+    private final int capacity;
+    private final Map<String, Entry> entries;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key, long weight) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.count += weight;
+            return;
+        }
+        if (entries.size() < capacity) {
+            entries.put(key, new Entry(weight, 0));
+            return;
+        }
+
+        // Full: the new key takes over the smallest entry, the scan only runs for unseen keys
+        String smallestKey = null;
+        Entry smallest = null;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            if (smallest == null || candidate.getValue().count < smallest.count) {
+                smallestKey = candidate.getKey();
+                smallest = candidate.getValue();
+            }
+        }
+        entries.remove(smallestKey);
+        entries.put(key, new Entry(smallest.count + weight, smallest.count));
+    }
+
+    public void remove(String key, long weight) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.count = Math.max(entry.error, entry.count - weight);
+        }
+    }
+
+    public void forEach(EntryConsumer action) {
+        entries.forEach((key, entry) -> action.accept(key, entry.count, entry.error));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public interface EntryConsumer {
+        void accept(String key, long count, long error);
+    }
+
+    private static class Entry {
+        private long count;
+        private final long error;
+
+        Entry(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
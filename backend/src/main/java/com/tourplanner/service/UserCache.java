@@ -0,0 +1,123 @@
+package com.tourplanner.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tourplanner.dto.AdminProfileDTO;
+import com.tourplanner.model.User;
+import com.tourplanner.repository.UserProfileReadRepository;
+import com.tourplanner.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/*
+    Bounded in-process cache (Caffeine, W-TinyLFU) in front of the user lookups:
+    users by email / userId from UserRepository, and the joined user + profile rows
+    from UserProfileReadRepository by email / userId.
+
+    A lookup that finds nothing is cached too (Optional.empty) for a shorter time,
+    so repeated logins or tokens for an unknown email don't reach MySQL every time.
+
+    Misses for the same key that arrive together share one query (SingleFlight), so a burst of
+    requests for a user that just fell out of the cache still reaches MySQL once.
+
+    Writers must call evict() after changing or deleting a user or profile.
+    A read that was already in flight when the write happened can still put the old row back,
+    the TTL bounds how long that lasts.
+
+    Cached objects are shared, callers must not modify them. Code that updates a user
+    reads it from the repository instead.
+*/
+
+@Component
+@Slf4j
+public class UserCache {
+    private final UserRepository userRepository;
+    private final UserProfileReadRepository userProfileReadRepository;
+    private final SingleFlight singleFlight;
+
+    private final Cache<String, Optional<User>> usersByEmail;
+    private final Cache<Long, Optional<User>> usersById;
+    private final Cache<String, Optional<AdminProfileDTO>> profilesByEmail;
+    private final Cache<Long, Optional<AdminProfileDTO>> profilesById;
+
+    public UserCache(UserRepository userRepository,
+                     UserProfileReadRepository userProfileReadRepository,
+                     SingleFlight singleFlight,
+                     MeterRegistry meterRegistry,
+                     @Value("${tourplanner.cache.users.max-size:10000}") long maxSize,
+                     @Value("${tourplanner.cache.users.ttl:10m}") Duration ttl,
+                     @Value("${tourplanner.cache.users.negative-ttl:30s}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.userProfileReadRepository = userProfileReadRepository;
+        this.singleFlight = singleFlight;
+
+        this.usersByEmail = CaffeineCacheMetrics.monitor(meterRegistry, build(maxSize, ttl, negativeTtl), "users.by-email");
+        this.usersById = CaffeineCacheMetrics.monitor(meterRegistry, build(maxSize, ttl, negativeTtl), "users.by-id");
+        this.profilesByEmail = CaffeineCacheMetrics.monitor(meterRegistry, build(maxSize, ttl, negativeTtl), "profiles.by-email");
+        this.profilesById = CaffeineCacheMetrics.monitor(meterRegistry, build(maxSize, ttl, negativeTtl), "profiles.by-id");
+    }
+
+    public Mono<User> findUserByEmail(String email) {
+        return lookup("users.by-email", usersByEmail, email, userRepository::findByEmail);
+    }
+
+    public Mono<User> findUserById(Long userId) {
+        return lookup("users.by-id", usersById, userId, userRepository::findById);
+    }
+
+    public Mono<AdminProfileDTO> findProfileByEmail(String email) {
+        return lookup("profiles.by-email", profilesByEmail, email, userProfileReadRepository::findAdminProfileByEmail);
+    }
+
+    public Mono<AdminProfileDTO> findProfileById(Long userId) {
+        return lookup("profiles.by-id", profilesById, userId, userProfileReadRepository::findAdminProfileById);
+    }
+
+    // Drops every entry of the user, pass both emails when the email itself changed
+    public void evict(Long userId, String... emails) {
+        if (userId != null) {
+            usersById.invalidate(userId);
+            profilesById.invalidate(userId);
+        }
+        for (String email : emails) {
+            if (email == null) continue;
+            usersByEmail.invalidate(email);
+            profilesByEmail.invalidate(email);
+        }
+        log.debug("Evicted cached user entries for userId {}", userId);
+    }
+
+    public void invalidateAll() {
+        usersByEmail.invalidateAll();
+        usersById.invalidateAll();
+        profilesByEmail.invalidateAll();
+        profilesById.invalidateAll();
+    }
+
+    private <K, V> Mono<V> lookup(String name, Cache<K, Optional<V>> cache, K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Optional<V> cached = cache.getIfPresent(key);
+            if (cached != null) return Mono.justOrEmpty(cached);
+
+            return singleFlight.execute(name, key, () -> loader.apply(key)
+                    .doOnSuccess(value -> cache.put(key, Optional.ofNullable(value))));
+        });
+    }
+
+    private static <K, V> Cache<K, Optional<V>> build(long maxSize, Duration ttl, Duration negativeTtl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.writing((K key, Optional<V> value) -> value.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+    }
+}
@@ -10,6 +10,7 @@ import reactor.core.publisher.Mono;
 
 public interface UserService {
     Mono<UserRegisterDTO> registerUser(UserRegisterDTO userRegisterDTO);
+    Mono<UserRegisterDTO> registerUser(UserRegisterDTO userRegisterDTO, String idempotencyKey);
     Mono<UserProfileDTO> getCurrentUserProfile(String email);
     Flux<Booking> getAllBookingForAUser(String email);
     Mono<Profile> updateCurrentUserProfile(String email, UpdateCurrentProfileInputDTO updateCurrentProfileInputDTO);
@@ -1,15 +1,20 @@
 package com.tourplanner.service;
 
+import com.tourplanner.dto.AdminProfileDTO;
 import com.tourplanner.dto.UpdateCurrentProfileInputDTO;
 import com.tourplanner.dto.UserProfileDTO;
 import com.tourplanner.dto.UserRegisterDTO;
 import com.tourplanner.exception.UserNotFoundException;
+import com.tourplanner.logging.MaskedEmail;
+import com.tourplanner.logging.SampledDebug;
 import com.tourplanner.model.Booking;
 import com.tourplanner.model.Profile;
 import com.tourplanner.model.User;
 import com.tourplanner.repository.BookingRepository;
 import com.tourplanner.repository.ProfileRepository;
 import com.tourplanner.repository.UserRepository;
+import com.tourplanner.security.PasswordHashingExecutor;
+import com.tourplanner.security.TokenDenylist;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
@@ -23,6 +28,9 @@ import reactor.core.publisher.Mono;
 @Service
 @Slf4j
 public class UserServiceImpl implements UserService{
+    // Per-row debug lines of getAllBookingForAUser, one row in 100 is logged
+    private static final SampledDebug ROWS = SampledDebug.every(100, log);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -35,38 +43,69 @@ public class UserServiceImpl implements UserService{
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    private String maskEmail(String email) {
-        if(email == null || !email.contains("@")) return "hidden";
-        String[] parts = email.split("@");
-        String name = parts[0];
-        if(name.length() <= 2) return "***@" + parts[1];
-        return name.charAt(0) + "***@" + parts[1];
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CascadingUserDeleter cascadingUserDeleter;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    private UserProfileDTO mapToUserProfileDTO(AdminProfileDTO dto) {
+        return new UserProfileDTO(
+                dto.getEmail(),
+                dto.getFirstName(),
+                dto.getLastName(),
+                dto.getAadharNumber(),
+                dto.getCity(),
+                dto.getPhoneNumber()
+        );
+    }
+
+    /*
+        A retried registration with the same key gets the first result back instead of
+        "Email already registered". The password is left out of what gets hashed and stored.
+    */
+    @Override
+    public Mono<UserRegisterDTO> registerUser(UserRegisterDTO userRegisterDTO, String idempotencyKey) {
+        UserRegisterDTO withoutPassword = withoutPassword(userRegisterDTO);
+        return idempotencyStore.execute("registerUser:" + userRegisterDTO.getEmail(), idempotencyKey, withoutPassword, UserRegisterDTO.class,
+                () -> registerUser(userRegisterDTO).map(this::withoutPassword));
     }
 
-    private Mono<UserProfileDTO> mapToUserProfileDTOReactive(User user) {
-        return profileRepository.findByUserId(user.getUserId())
-                .map(profile -> new UserProfileDTO(
-                        user.getEmail(),
-                        profile != null ? profile.getFirstName() : null,
-                        profile != null ? profile.getLastName() : null,
-                        profile != null ? profile.getAadharNumber() : null,
-                        profile != null ? profile.getCity() : null,
-                        profile != null ? profile.getPhoneNumber() : null
-                ));
+    private UserRegisterDTO withoutPassword(UserRegisterDTO dto) {
+        return new UserRegisterDTO(dto.getEmail(), null, dto.getFirstName(), dto.getLastName(),
+                dto.getAadharNumber(), dto.getCity(), dto.getPhoneNumber());
     }
 
     @Override
     public Mono<UserRegisterDTO> registerUser(UserRegisterDTO userRegisterDTO) {
-        String maskedEmail = maskEmail(userRegisterDTO.getEmail());
+        MaskedEmail maskedEmail = MaskedEmail.of(userRegisterDTO.getEmail());
         log.info("Received request to register new user: {}", maskedEmail);
 
-        User newUser = new User();
-        newUser.setEmail(userRegisterDTO.getEmail());
-        newUser.setPasswordHash(passwordEncoder.encode(userRegisterDTO.getPassword()));
-
-        return userRepository.save(newUser)
+        // BCrypt runs on the password hashing pool, not on the event loop
+        return passwordHashingExecutor.encode(passwordEncoder, userRegisterDTO.getPassword())
+                .flatMap(passwordHash -> {
+                    User newUser = new User();
+                    newUser.setEmail(userRegisterDTO.getEmail());
+                    newUser.setPasswordHash(passwordHash);
+                    return userRepository.save(newUser);
+                })
                 .doOnSubscribe(sub -> log.debug("Attempting to save new user: {}", maskedEmail))
                 .doOnNext(savedUser -> log.debug("User saved successfully with ID: {}", savedUser.getUserId()))
+                // A failed login before registering may have cached this email as unknown
+                .doOnNext(savedUser -> userCache.evict(savedUser.getUserId(), savedUser.getEmail()))
+                .doOnNext(dashboardCounters::userRegistered)
 
                 .flatMap(savedUser -> {
                     log.debug("Creating profile for userId: {}", savedUser.getUserId());
@@ -97,12 +136,13 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public Mono<UserProfileDTO> getCurrentUserProfile(String email) {
-        String maskedEmail = maskEmail(email);
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
         log.info("Fetching user profile for email: {}", maskedEmail);
 
-        return userRepository.findByEmail(email)
-                .doOnSubscribe(sub -> log.debug("Started searching user in DB for {}", maskedEmail))
-                .doOnNext(user -> log.debug("User found with ID: {}", user.getUserId()))
+        // users JOIN profiles in a single statement, served from the user cache when present
+        return userCache.findProfileByEmail(email)
+                .map(this::mapToUserProfileDTO)
+                .doOnSubscribe(sub -> log.debug("Started searching user profile in DB for {}", maskedEmail))
 
                 // If no email found -> error
                 .switchIfEmpty(Mono.defer(() -> {
@@ -110,20 +150,16 @@ public class UserServiceImpl implements UserService{
                     return Mono.error(new UserNotFoundException("User not found with email: " + email));
                 }))
 
-                .flatMap(user -> {
-                    log.debug("Mapping user to UserProfileDTO for {}", maskedEmail);
-                    return mapToUserProfileDTOReactive(user)
-                            .doOnSuccess(dto -> log.info("Successfully mapped profile for {} with ID={}", maskedEmail, user.getUserId()))
-                            .doOnError(err -> log.error("Error mapping user profile for {}: {}", maskedEmail, err.getMessage()));
-                });
+                .doOnSuccess(dto -> log.info("Successfully mapped profile for {}", maskedEmail))
+                .doOnError(err -> log.error("Error mapping user profile for {}: {}", maskedEmail, err.getMessage()));
     }
 
     @Override
     public Flux<Booking> getAllBookingForAUser(String email) {
-        String maskedEmail = maskEmail(email);
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
         log.info("Fetching all bookings for user: {}", maskedEmail);
 
-        return userRepository.findByEmail(email)
+        return userCache.findUserByEmail(email)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for {}", maskedEmail))
                 .doOnNext(user -> log.debug("User found with ID: {}", user.getUserId()))
 
@@ -137,7 +173,7 @@ public class UserServiceImpl implements UserService{
                     log.debug("Fetching bookings for userId: {}", user.getUserId());
                     return bookingRepository.findByUserId(user.getUserId())
                             .doOnSubscribe(sub -> log.debug("Started querying bookings for {}", maskedEmail))
-                            .doOnNext(booking -> log.debug("Found booking with ID: {}", booking.getBookingId()))
+                            .doOnNext(booking -> { if (ROWS.isEnabled()) log.debug("Found booking with ID: {}", booking.getBookingId()); })
                             .doOnComplete(() -> log.info("Completed fetching bookings for {} with ID={}", maskedEmail, user.getUserId()))
                             .doOnError(err -> log.error("Error fetching bookings for {}: {}", maskedEmail, err.getMessage()));
                 });
@@ -145,10 +181,10 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public Mono<String> deleteUserByEmail(String email) {
-        String maskedEmail = maskEmail(email);
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
         log.info("Attempting to delete user and related data for {}", maskedEmail);
 
-        return userRepository.findByEmail(email)
+        return userCache.findUserByEmail(email)
                 .doOnSubscribe(sub -> log.debug("Started searching user in DB for {}", maskedEmail))
                 .doOnNext(user -> log.debug("User found with ID: {}", user.getUserId()))
 
@@ -159,8 +195,10 @@ public class UserServiceImpl implements UserService{
                 }))
 
                 .flatMap(user -> {
-                    log.debug("Deleting user with ID: {}", user.getUserId());
-                    return userRepository.delete(user)
+                    log.debug("Deleting user with ID: {} along with its bookings and profile", user.getUserId());
+                    return cascadingUserDeleter.delete(user)
+                            .doOnSuccess(v -> tokenDenylist.revoke(user.getEmail()))
+                            .doOnSuccess(v -> userCache.evict(user.getUserId(), user.getEmail()))
                             .doOnSuccess(v -> log.info("User deleted successfully for {} with ID={}", maskedEmail, user.getUserId()))
                             .doOnError(err -> log.error("Error deleting user for {}: {}", maskedEmail, err.getMessage()));
                 })
@@ -173,7 +211,7 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public Mono<Profile> updateCurrentUserProfile(String email, UpdateCurrentProfileInputDTO updateCurrentProfileInputDTO) {
-        String maskedEmail = maskEmail(email);
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
         log.info("Received request to update profile for user: {}", maskedEmail);
 
         return userRepository.findByEmail(email)
@@ -213,6 +251,7 @@ public class UserServiceImpl implements UserService{
                             }
 
                             return profileRepository.save(profile)
+                                    .doOnTerminate(() -> userCache.evict(user.getUserId(), email))
                                     .doOnSuccess(updated -> log.info("Successfully updated profile for {} with userID={}", maskedEmail, profile.getUserId()))
                                     .doOnError(err -> log.error("Error saving profile for {}: {}", maskedEmail, err.getMessage(), err));
                         })
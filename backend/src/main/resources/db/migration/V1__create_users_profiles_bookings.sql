@@ -0,0 +1,35 @@
+-- Base tables. IF NOT EXISTS keeps databases created from tourPlannerRewrite.sql working,
+-- their tables are left as they are and only the missing indexes are added by V2.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email VARCHAR(100) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    user_type VARCHAR(50) DEFAULT 'USER',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS profiles (
+    profile_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    first_name VARCHAR(50),
+    last_name VARCHAR(50),
+    aadhar_number VARCHAR(20),
+    city VARCHAR(50),
+    phone_number VARCHAR(20),
+    CONSTRAINT uk_profiles_user_id UNIQUE (user_id),
+    CONSTRAINT fk_profiles_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    destination VARCHAR(100),
+    rate INT,
+    booking_date DATE,
+    number_of_people INT,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(50) DEFAULT 'PENDING',
+    CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
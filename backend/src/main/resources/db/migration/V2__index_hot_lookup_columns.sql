@@ -0,0 +1,8 @@
+-- findByUserId / myBookings: equality on user_id, newest first
+CREATE INDEX idx_bookings_user_created ON bookings (user_id, created_at);
+
+-- status and booking date filters of bookings / the export
+CREATE INDEX idx_bookings_status_booking_date ON bookings (status, booking_date);
+
+-- keyset pagination of bookings on (created_at, booking_id)
+CREATE INDEX idx_bookings_created_booking ON bookings (created_at, booking_id);
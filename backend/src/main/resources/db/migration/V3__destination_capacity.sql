@@ -0,0 +1,11 @@
+-- Seats per destination and travel date. remaining only changes through conditional
+-- UPDATEs (remaining >= seats), the CHECK is the last line of defence against overselling.
+
+CREATE TABLE IF NOT EXISTS destination_capacity (
+    destination VARCHAR(100) NOT NULL,
+    travel_date DATE NOT NULL,
+    capacity INT NOT NULL,
+    remaining INT NOT NULL,
+    PRIMARY KEY (destination, travel_date),
+    CONSTRAINT chk_destination_capacity_remaining CHECK (remaining >= 0 AND remaining <= capacity)
+);
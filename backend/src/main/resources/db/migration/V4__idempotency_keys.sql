@@ -0,0 +1,14 @@
+-- Results of mutations sent with an idempotency key, replayed when the client retries.
+-- scope is the operation plus its caller, so two users can't collide on the same key.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    scope VARCHAR(150) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    response TEXT NOT NULL,
+    expires_at DATETIME NOT NULL,
+    PRIMARY KEY (scope, idempotency_key)
+);
+
+-- purge of expired keys
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
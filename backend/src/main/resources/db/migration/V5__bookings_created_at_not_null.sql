@@ -0,0 +1,7 @@
+-- Keyset pagination of bookings seeks on (created_at, booking_id), a NULL created_at can't be
+-- encoded in a cursor and drops out of every page after the first. Rows from before the column
+-- had a default get the epoch, so they sort as the oldest bookings.
+
+UPDATE bookings SET created_at = '1970-01-01 00:00:00' WHERE created_at IS NULL;
+
+ALTER TABLE bookings MODIFY created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
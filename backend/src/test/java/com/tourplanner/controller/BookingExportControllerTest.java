@@ -0,0 +1,181 @@
+package com.tourplanner.controller;
+
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.Booking;
+import com.tourplanner.repository.BookingExportRepository;
+import com.tourplanner.security.AuthenticatedUser;
+import com.tourplanner.security.JwtGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+    Runs against the real Netty server on a random port, so backpressure and gzip behave like in production.
+*/
+
+@SpringBootTest(classes = MainApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BookingExportControllerTest {
+    private static final int ROWS = 1_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtGenerator jwtGenerator;
+
+    @MockitoBean
+    private BookingExportRepository bookingExportRepository;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofMinutes(2))
+                .build();
+    }
+
+    private String token(String userType) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + userType));
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "export@gmail.com", "", authorities);
+        return jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken(principal, null, authorities), userType);
+    }
+
+    private static Booking booking(long id) {
+        return new Booking(id, id % 100, "Goa", 5000, LocalDate.of(2025, 11, 1), 2,
+                LocalDateTime.of(2025, 11, 1, 10, 0), "PENDING");
+    }
+
+    @Test
+    void testCsvExportStreamsMillionRowsWithBoundedDemand() {
+        AtomicLong largestRequest = new AtomicLong();
+        AtomicLong emitted = new AtomicLong();
+        when(bookingExportRepository.streamBookings(null, null, null)).thenReturn(
+                Flux.range(1, ROWS)
+                        .doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max))
+                        .map(i -> booking(i))
+                        .doOnNext(b -> emitted.incrementAndGet()));
+
+        // Count lines as the buffers arrive and release them, nothing is held on to
+        long lines = webTestClient.get().uri("/admin/bookings/export?format=csv")
+                .header("Authorization", "Bearer " + token("ADMIN"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"))
+                .returnResult(DataBuffer.class)
+                .getResponseBody()
+                .map(buffer -> {
+                    long newlines = 0;
+                    for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+                        if (buffer.getByte(i) == '\n') newlines++;
+                    }
+                    DataBufferUtils.release(buffer);
+                    return newlines;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+
+        assertEquals(ROWS + 1, lines);
+        assertEquals(ROWS, emitted.get());
+        // Rows were pulled a few chunks at a time, never requested all at once
+        assertTrue(largestRequest.get() <= 8 * 256, "largest request was " + largestRequest.get());
+    }
+
+    @Test
+    void testNdjsonExportPassesFilters() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        when(bookingExportRepository.streamBookings("CONFIRMED", from, to)).thenReturn(Flux.just(booking(1), booking(2)));
+
+        String body = webTestClient.get().uri("/admin/bookings/export?status=CONFIRMED&fromDate=2025-01-01&toDate=2025-12-31")
+                .header("Authorization", "Bearer " + token("ADMIN"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"bookingId\":1"));
+        assertTrue(lines[0].contains("\"bookingDate\":\"2025-11-01\""));
+    }
+
+    @Test
+    void testExportIsGzippedWhenAccepted() throws Exception {
+        when(bookingExportRepository.streamBookings(null, null, null)).thenReturn(Flux.range(1, 1000).map(i -> booking(i)));
+
+        // java.net.http leaves the body compressed, the WebTestClient connector would strip Content-Encoding
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/admin/bookings/export?format=csv"))
+                        .header("Authorization", "Bearer " + token("ADMIN"))
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(1001, csv.split("\n").length);
+        }
+    }
+
+    @Test
+    void testInvalidDateRangeRejected() {
+        webTestClient.get().uri("/admin/bookings/export?fromDate=2025-12-31&toDate=2025-01-01")
+                .header("Authorization", "Bearer " + token("ADMIN"))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(bookingExportRepository, never()).streamBookings(any(), any(), any());
+    }
+
+    @Test
+    void testUserCannotExport() {
+        webTestClient.get().uri("/admin/bookings/export")
+                .header("Authorization", "Bearer " + token("USER"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void testCsvLineQuotesSeparators() {
+        Booking booking = booking(7);
+        booking.setDestination("Goa, \"North\"");
+
+        assertEquals("7,7,\"Goa, \"\"North\"\"\",5000,2025-11-01,2,2025-11-01T10:00,PENDING\n",
+                BookingExportController.toCsvLine(booking));
+    }
+}
@@ -0,0 +1,170 @@
+package com.tourplanner.controller;
+
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.Booking;
+import com.tourplanner.model.User;
+import com.tourplanner.repository.BookingRepository;
+import com.tourplanner.repository.UserRepository;
+import com.tourplanner.security.AuthenticatedUser;
+import com.tourplanner.security.JwtGenerator;
+import com.tourplanner.service.AdminService;
+import com.tourplanner.service.UserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.graphql.client.WebSocketGraphQlClient;
+import org.springframework.graphql.client.WebSocketGraphQlClientInterceptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/*
+    Subscriptions over a real WebSocket connection, authenticated through connection_init.
+*/
+
+@SpringBootTest(classes = MainApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BookingSubscriptionTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtGenerator jwtGenerator;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private BookingRepository bookingRepository;
+
+    @MockitoBean
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void setUp() {
+        userCache.invalidateAll();
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(inv -> inv.getArgument(0));
+
+        User user = new User();
+        user.setUserId(7L);
+        user.setEmail("sub@gmail.com");
+        user.setUserType("USER");
+        when(userRepository.findByEmail("sub@gmail.com")).thenReturn(Mono.just(user));
+
+        when(bookingRepository.findById(10L)).thenReturn(Mono.just(booking(10L, 7L)));
+        when(bookingRepository.findById(11L)).thenReturn(Mono.just(booking(11L, 8L)));
+        when(bookingRepository.updateStatusIf(anyLong(), anyString(), anyString())).thenReturn(Mono.just(1L));
+    }
+
+    private static Booking booking(long bookingId, long userId) {
+        return new Booking(bookingId, userId, "Goa", 5000, LocalDate.of(2025, 11, 1), 2,
+                LocalDateTime.of(2025, 11, 1, 10, 0), "PENDING");
+    }
+
+    private String token(Long userId, String email, String userType) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + userType));
+        AuthenticatedUser principal = new AuthenticatedUser(userId, email, "", authorities);
+        return jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken(principal, null, authorities), userType);
+    }
+
+    private WebSocketGraphQlClient client(String token) {
+        return WebSocketGraphQlClient.builder(URI.create("ws://localhost:" + port + "/graphql"), new ReactorNettyWebSocketClient())
+                .interceptor(new WebSocketGraphQlClientInterceptor() {
+                    @Override
+                    public Mono<Object> connectionInitPayload() {
+                        return token != null ? Mono.just(Map.of("Authorization", "Bearer " + token)) : Mono.empty();
+                    }
+                })
+                .build();
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && meterRegistry.get("booking.events.subscribers").gauge().value() < count; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(count, (int) meterRegistry.get("booking.events.subscribers").gauge().value());
+    }
+
+    @Test
+    void testUserReceivesOnlyOwnStatusChanges() {
+        WebSocketGraphQlClient client = client(token(7L, "sub@gmail.com", "USER"));
+        Flux<Booking> changes = client.document("subscription { bookingStatusChanged { bookingId userId status } }")
+                .retrieveSubscription("bookingStatusChanged")
+                .toEntity(Booking.class);
+
+        StepVerifier.create(changes)
+                .then(() -> {
+                    try {
+                        awaitSubscribers(1);
+                    } catch (InterruptedException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                    // Booking 11 belongs to another user
+                    adminService.updateUserBooking(11L, "APPROVED").block();
+                    adminService.updateUserBooking(10L, "APPROVED").block();
+                })
+                .assertNext(booking -> {
+                    assertEquals(10L, booking.getBookingId());
+                    assertEquals("APPROVED", booking.getStatus());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(30));
+
+        client.stop().block();
+    }
+
+    @Test
+    void testUserCannotSubscribeToCreatedBookings() {
+        WebSocketGraphQlClient client = client(token(7L, "sub@gmail.com", "USER"));
+
+        StepVerifier.create(client.document("subscription { bookingCreated { bookingId } }")
+                        .retrieveSubscription("bookingCreated")
+                        .toEntity(Booking.class))
+                .expectError()
+                .verify(Duration.ofSeconds(30));
+
+        client.stop().block();
+    }
+
+    @Test
+    void testConnectionWithoutTokenIsRejected() {
+        WebSocketGraphQlClient client = client(null);
+
+        StepVerifier.create(client.document("subscription { bookingStatusChanged { bookingId } }")
+                        .retrieveSubscription("bookingStatusChanged")
+                        .toEntity(Booking.class))
+                .expectError()
+                .verify(Duration.ofSeconds(30));
+
+        client.stop().block();
+    }
+}
@@ -0,0 +1,41 @@
+package com.tourplanner.controller;
+
+import com.tourplanner.main.MainApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = MainApplication.class)
+public class UserAuthControllerTest {
+    @Autowired
+    private UserAuthController userAuthController;
+
+    @MockitoBean
+    private ReactiveAuthenticationManager reactiveAuthenticationManager;
+
+    @Test
+    void testThrottledLoginNeverReachesAuthentication() {
+        when(reactiveAuthenticationManager.authenticate(any())).thenReturn(Mono.error(new BadCredentialsException("bad")));
+
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(userAuthController.loginUser("stuffed@gmail.com", "guess" + i, "10.1.1.1"))
+                    .expectNextMatches(result -> "Invalid email or password".equals(result.get("error")))
+                    .verifyComplete();
+        }
+
+        StepVerifier.create(userAuthController.loginUser("stuffed@gmail.com", "guess5", "10.1.1.2"))
+                .expectNextMatches(result -> result.get("error").startsWith("Too many login attempts"))
+                .verifyComplete();
+        verify(reactiveAuthenticationManager, times(5)).authenticate(any());
+    }
+}
@@ -0,0 +1,52 @@
+package com.tourplanner.graphql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+    private static final long MILLIS = 1_000_000L;
+
+    // Keeps the limit saturated: every permit is taken, then all are released with the same latency
+    private static void runWindows(AdaptiveConcurrencyLimit limit, int windows, long rttNanos) {
+        for (int w = 0; w < windows; w++) {
+            int taken = 0;
+            while (limit.tryAcquire(1.0)) taken++;
+            for (int i = 0; i < taken; i++) limit.release(rttNanos, true);
+        }
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyIsSteady() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 100, 10);
+        runWindows(limit, 50, 20 * MILLIS);
+
+        assertTrue(limit.getLimit() > 30, "limit was " + limit.getLimit());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 4, 100, 10);
+        runWindows(limit, 5, 20 * MILLIS);
+        int before = limit.getLimit();
+
+        // Right after latency jumps tenfold; the new latency becomes the baseline later on
+        runWindows(limit, 3, 200 * MILLIS);
+
+        assertTrue(limit.getLimit() < before / 2, before + " -> " + limit.getLimit());
+    }
+
+    @Test
+    void testLowPriorityGetsOnlyItsShare() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 100, 10);
+        int bulk = 0;
+        while (limit.tryAcquire(0.5)) bulk++;
+        assertEquals(5, bulk);
+
+        // Mutations still get the rest
+        for (int i = 0; i < 5; i++) assertTrue(limit.tryAcquire(1.0));
+        assertFalse(limit.tryAcquire(1.0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.tourplanner.graphql;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingDocumentProviderTest {
+    private static final String QUERY = "{ hello }";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingDocumentProvider provider = new CachingDocumentProvider(meterRegistry, 10, 10);
+    private final GraphQL graphQL = GraphQL.newGraphQL(schema()).preparsedDocumentProvider(provider).build();
+
+    private static GraphQLSchema schema() {
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type.dataFetcher("hello", env -> "world"))
+                .build();
+        return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("type Query { hello: String }"), wiring);
+    }
+
+    private ExecutionResult execute(String query, String hash) {
+        ExecutionInput.Builder input = ExecutionInput.newExecutionInput().query(query);
+        if (hash != null) {
+            input.extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        }
+        return graphQL.execute(input.build());
+    }
+
+    private long parses() {
+        return meterRegistry.get("graphql.document.parse").timer().count();
+    }
+
+    private static String sha256(String text) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testRepeatedQueryIsParsedOnce() {
+        assertEquals(Map.of("hello", "world"), execute(QUERY, null).getData());
+        assertEquals(Map.of("hello", "world"), execute(QUERY, null).getData());
+
+        assertEquals(1, parses());
+        assertTrue(meterRegistry.get("graphql.document.parse.saved").counter().count() > 0);
+    }
+
+    @Test
+    void testInvalidQueryIsNotCached() {
+        assertEquals(1, execute("{ missing }", null).getErrors().size());
+        assertEquals(1, execute("{ missing }", null).getErrors().size());
+
+        assertEquals(2, parses());
+    }
+
+    @Test
+    void testPersistedQueryRegisteredOnFirstMiss() throws NoSuchAlgorithmException {
+        String hash = sha256(QUERY);
+
+        // Hash only: not known yet, the client has to send the text
+        ExecutionResult notFound = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash);
+        assertEquals("PersistedQueryNotFound", notFound.getErrors().get(0).getMessage());
+
+        assertEquals(Map.of("hello", "world"), execute(QUERY, hash).getData());
+        assertEquals(Map.of("hello", "world"), execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash).getData());
+        assertEquals(1, parses());
+    }
+
+    @Test
+    void testPersistedQueryWithWrongHashIsRejected() {
+        String wrongHash = DigestUtils.md5DigestAsHex("other".getBytes(StandardCharsets.UTF_8));
+
+        ExecutionResult result = execute(QUERY, wrongHash);
+
+        assertEquals("PersistedQueryIdInvalid", result.getErrors().get(0).getMessage());
+        assertEquals(0, parses());
+    }
+}
@@ -0,0 +1,97 @@
+package com.tourplanner.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrencyLimitFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            new CachingDocumentProvider(meterRegistry, 100, 100), new ObjectMapper(), meterRegistry,
+            true, 10, 4, 100, 10, 65536, Set.of("getAllUser", "getAllBookings"));
+
+    private static MockServerWebExchange graphql(String body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.getBytes(StandardCharsets.UTF_8).length)
+                .body(body));
+    }
+
+    @Test
+    void testClassifiesByOperation() {
+        assertEquals(ConcurrencyLimitFilter.Priority.MUTATION, filter.classify(
+                "{\"query\":\"# book\\nmutation { createBooking(bookingDTO: {}) { rate } }\"}".getBytes()));
+        assertEquals(ConcurrencyLimitFilter.Priority.MUTATION, filter.classify(
+                "{\"query\":\"query A { x } mutation B { y }\",\"operationName\":\"B\"}".getBytes()));
+        assertEquals(ConcurrencyLimitFilter.Priority.BULK, filter.classify(
+                "{\"query\":\"{ getAllBookings { bookingId } }\"}".getBytes()));
+        assertEquals(ConcurrencyLimitFilter.Priority.QUERY, filter.classify(
+                "{\"query\":\"{ getBookingById(bookingId: 1) { bookingId } }\"}".getBytes()));
+    }
+
+    @Test
+    void testDefaultLowPriorityFieldsMatchTheSchema() {
+        ConcurrencyLimitFilter defaults = new ConcurrencyLimitFilter(
+                new CachingDocumentProvider(meterRegistry, 100, 100), new ObjectMapper(), meterRegistry,
+                true, 10, 4, 100, 10, 65536, Set.of(ConcurrencyLimitFilter.DEFAULT_LOW_PRIORITY_FIELDS.split(",")));
+
+        assertEquals(ConcurrencyLimitFilter.Priority.BULK, defaults.classify(
+                "{\"query\":\"{ getUsers { edges { cursor } } }\"}".getBytes()));
+        assertEquals(ConcurrencyLimitFilter.Priority.BULK, defaults.classify(
+                "{\"query\":\"{ getAdmins(first: 50) { edges { cursor } } }\"}".getBytes()));
+    }
+
+    @Test
+    void testMutationFoundByOperationName() {
+        assertEquals(ConcurrencyLimitFilter.Priority.MUTATION, filter.classify(
+                "{\"query\":\"query Book { x } mutation\\n  Book { y }\",\"operationName\":\"Book\"}".getBytes()));
+        // Only the operation's own name counts, not a longer one that starts with it or a field
+        assertEquals(ConcurrencyLimitFilter.Priority.QUERY, filter.classify(
+                "{\"query\":\"query Book { x } mutation BookTwo { y }\",\"operationName\":\"Book\"}".getBytes()));
+        assertEquals(ConcurrencyLimitFilter.Priority.QUERY, filter.classify(
+                "{\"query\":\"query Book { nomutation Book }\",\"operationName\":\"Book\"}".getBytes()));
+    }
+
+    @Test
+    void testShedsBulkQueriesFirstAndKeepsTheBody() {
+        // Half of the limit is in use: bulk queries are refused, mutations still pass
+        for (int i = 0; i < 5; i++) filter.getLimit().tryAcquire(1.0);
+
+        MockServerWebExchange bulk = graphql("{\"query\":\"{ getAllUser { email } }\"}");
+        StepVerifier.create(filter.filter(bulk, exchange -> Mono.empty())).verifyComplete();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, bulk.getResponse().getStatusCode());
+        assertEquals("1", bulk.getResponse().getHeaders().getFirst("Retry-After"));
+        StepVerifier.create(bulk.getResponse().getBodyAsString())
+                .assertNext(body -> assertTrue(body.contains("SERVICE_UNAVAILABLE"), body))
+                .verifyComplete();
+
+        String mutationBody = "{\"query\":\"mutation { createBooking(bookingDTO: {}) { rate } }\"}";
+        MockServerWebExchange mutation = graphql(mutationBody);
+        AtomicReference<String> seenBody = new AtomicReference<>();
+        WebFilterChain chain = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+                .doOnNext(buffer -> seenBody.set(buffer.toString(StandardCharsets.UTF_8)))
+                .then();
+        StepVerifier.create(filter.filter(mutation, chain)).verifyComplete();
+
+        assertNull(mutation.getResponse().getStatusCode());
+        assertEquals(mutationBody, seenBody.get());
+        assertEquals(5, filter.getLimit().getInFlight());
+        assertEquals(1, meterRegistry.counter("concurrency.rejected", "priority", "bulk").count());
+    }
+}
@@ -0,0 +1,103 @@
+package com.tourplanner.graphql;
+
+import com.tourplanner.exception.GlobalExceptionHandler;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryCostInstrumentationTest {
+    private static final String SDL = """
+            directive @listCost(size: Int!, sizeArgument: String) on FIELD_DEFINITION
+            type Booking { bookingId: ID destination: String owner: Booking }
+            type Query {
+                getAllBookings: [Booking] @listCost(size: 2000)
+                bookings(first: Int = 20): [Booking] @listCost(size: 100, sizeArgument: "first")
+            }
+            """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final GraphQL graphQL;
+
+    QueryCostInstrumentationTest() {
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation();
+        ReflectionTestUtils.setField(instrumentation, "globalExceptionHandler", new GlobalExceptionHandler());
+        ReflectionTestUtils.setField(instrumentation, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(instrumentation, "maxDepth", 3);
+        ReflectionTestUtils.setField(instrumentation, "defaultBudget", 200);
+
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type
+                        .dataFetcher("getAllBookings", env -> fetched())
+                        .dataFetcher("bookings", env -> fetched()))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SDL), wiring);
+        graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build();
+    }
+
+    private List<Map<String, Object>> fetched() {
+        fetches.incrementAndGet();
+        return List.of(Map.of("bookingId", 1, "destination", "Goa"));
+    }
+
+    private ExecutionResult execute(String query, Integer budget) {
+        ExecutionInput.Builder input = ExecutionInput.newExecutionInput().query(query);
+        if (budget != null) {
+            input.graphQLContext(Map.of(QueryCostInstrumentation.BUDGET_KEY, budget));
+        }
+        return graphQL.execute(input.build());
+    }
+
+    @Test
+    void testListCostScalesWithCardinality() {
+        // 2000 * (1 + 2) = 6000
+        ExecutionResult result = execute("{ getAllBookings { bookingId destination } }", 5999);
+
+        assertEquals(1, result.getErrors().size());
+        assertEquals("Query cost 6000 exceeds the budget of 5999", result.getErrors().get(0).getMessage());
+        assertEquals(ErrorType.BAD_REQUEST, result.getErrors().get(0).getErrorType());
+        assertEquals(0, fetches.get());
+        assertEquals(1.0, meterRegistry.get("graphql.requests.rejected").tag("reason", "cost").counter().count());
+
+        assertTrue(execute("{ getAllBookings { bookingId destination } }", 6000).getErrors().isEmpty());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void testSizeArgumentIsCappedAtSize() {
+        // first = 10: 10 * 3 = 30, first = 5000 is capped to 100: 100 * 3 = 300
+        assertTrue(execute("{ bookings(first: 10) { bookingId destination } }", null).getErrors().isEmpty());
+        assertEquals("Query cost 300 exceeds the budget of 200",
+                execute("{ bookings(first: 5000) { bookingId destination } }", null).getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void testDeepQueryIsRejected() {
+        ExecutionResult result = execute("{ bookings(first: 1) { owner { owner { bookingId } } } }", 20000);
+
+        assertEquals("Query depth 4 exceeds the limit of 3", result.getErrors().get(0).getMessage());
+        assertEquals(0, fetches.get());
+    }
+
+    @Test
+    void testIntrospectionDepthIsNotCounted() {
+        ExecutionResult result = execute("{ __schema { types { fields { type { ofType { name } } } } } }", 20000);
+
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+    }
+}
@@ -0,0 +1,432 @@
+package com.tourplanner.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.repository.StatementCountingListener;
+import com.tourplanner.security.AuthenticatedUser;
+import com.tourplanner.security.JwtGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+    End-to-end load test: the whole application (Netty, security, GraphQL, services, R2DBC)
+    on an in-memory H2 in MySQL mode, driven over HTTP by many concurrent virtual users.
+    Runs offline; excluded from the normal build, run it with
+
+        mvn -P load-test test
+        mvn -P load-test test -Dtourplanner.loadtest.virtual-users=128 -Dtourplanner.loadtest.duration=2m
+
+    Volumes, load and the operation mix are in config/application-loadtest.properties.
+
+    1. seeds users (with profiles), a few admins and their bookings
+    2. calibration: every operation alone, calibration-runs times, counting the statements
+       it sends (r2dbc-proxy); under load the count can't be told apart per operation
+    3. warmup, then duration of virtual users each sending one operation after the other,
+       picked by weight from the mix
+
+    The report (stdout and target/load-test-report.md) has, per operation: calls, errors
+    (GraphQL errors), shed (503 from the concurrency limit), throughput and p50 / p99 / p999
+    latency of the calls that weren't shed, and statements per call.
+
+    Absolute numbers are those of H2 on this box, not MySQL; compare runs of the same box.
+*/
+
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(classes = MainApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class GraphQlLoadTest {
+    private static final String PASSWORD = "LoadTest#123";
+    private static final List<String> DESTINATIONS = List.of("Goa", "Manali", "Udupi", "Coorg", "Munnar", "Jaipur");
+    private static final List<String> STATUSES = List.of("PENDING", "CONFIRMED", "CANCELLED");
+    private static final int SEED_BATCH = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtGenerator jwtGenerator;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${tourplanner.loadtest.users}")
+    private int users;
+
+    @Value("${tourplanner.loadtest.admins}")
+    private int admins;
+
+    @Value("${tourplanner.loadtest.bookings-per-user}")
+    private int bookingsPerUser;
+
+    @Value("${tourplanner.loadtest.virtual-users}")
+    private int virtualUsers;
+
+    @Value("${tourplanner.loadtest.warmup}")
+    private Duration warmup;
+
+    @Value("${tourplanner.loadtest.duration}")
+    private Duration duration;
+
+    @Value("${tourplanner.loadtest.shed-backoff}")
+    private Duration shedBackoff;
+
+    @Value("${tourplanner.loadtest.calibration-runs}")
+    private int calibrationRuns;
+
+    private WebClient webClient;
+    private List<Account> userAccounts;
+    private List<Account> adminAccounts;
+    private long minBookingId;
+    private long maxBookingId;
+    private final AtomicInteger registrations = new AtomicInteger();
+
+    private record Account(long userId, String email, String token) {
+    }
+
+    private record Request(String query, Map<String, Object> variables, String token) {
+    }
+
+    private record Operation(String name, int weight, Function<ThreadLocalRandom, Request> request) {
+    }
+
+    private enum Outcome { OK, ERROR, SHED, HTTP_ERROR }
+
+    @Test
+    void testMixedGraphQlLoad() throws IOException {
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build();
+        seed();
+        List<Operation> mix = operations();
+
+        Map<String, Double> statementsPerCall = new LinkedHashMap<>();
+        for (Operation operation : mix) {
+            statementsPerCall.put(operation.name(), calibrate(operation));
+        }
+
+        run(mix, warmup, new HashMap<>());
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        mix.forEach(operation -> stats.put(operation.name(), new OperationStats()));
+        long elapsedNanos = run(mix, duration, stats);
+
+        String report = report(stats, statementsPerCall, elapsedNanos);
+        System.out.println(report);
+        Files.writeString(Path.of("target", "load-test-report.md"), report);
+
+        // A report, not a performance gate: shedding under overload is expected, failures are not
+        stats.forEach((name, operationStats) ->
+                assertEquals(0, operationStats.count(Outcome.HTTP_ERROR), name + " got HTTP errors"));
+        assertTrue(stats.values().stream().anyMatch(operationStats -> operationStats.count(Outcome.OK) > 0), "nothing succeeded");
+    }
+
+    // ---- seeding
+
+    private void seed() {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        insertUsers("USER", users, passwordHash);
+        insertUsers("ADMIN", admins, passwordHash);
+
+        userAccounts = accounts("USER");
+        adminAccounts = accounts("ADMIN");
+
+        List<String> profiles = new ArrayList<>();
+        List<String> bookings = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Account account : userAccounts) {
+            profiles.add(String.format(Locale.ROOT, "(%d, 'First%d', 'Last%d', '%012d', '%s', '9%09d')",
+                    account.userId(), account.userId(), account.userId(), account.userId(),
+                    DESTINATIONS.get((int) (account.userId() % DESTINATIONS.size())), account.userId()));
+            for (int i = 0; i < bookingsPerUser; i++) {
+                bookings.add(String.format(Locale.ROOT, "(%d, '%s', %d, '%s', %d, '%s')",
+                        account.userId(), DESTINATIONS.get(random.nextInt(DESTINATIONS.size())), random.nextInt(2000, 40000),
+                        travelDate(random), random.nextInt(1, 6), STATUSES.get(random.nextInt(STATUSES.size()))));
+            }
+        }
+        insert("INSERT INTO profiles (user_id, first_name, last_name, aadhar_number, city, phone_number) VALUES ", profiles);
+        insert("INSERT INTO bookings (user_id, destination, rate, booking_date, number_of_people, status) VALUES ", bookings);
+
+        minBookingId = number("SELECT MIN(booking_id) FROM bookings");
+        maxBookingId = number("SELECT MAX(booking_id) FROM bookings");
+    }
+
+    private void insertUsers(String userType, int count, String passwordHash) {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add("('" + email(userType, i) + "', '" + passwordHash + "', '" + userType + "')");
+        }
+        insert("INSERT INTO users (email, password_hash, user_type) VALUES ", rows);
+    }
+
+    private void insert(String statement, List<String> rows) {
+        Flux.range(0, (rows.size() + SEED_BATCH - 1) / SEED_BATCH)
+                .concatMap(batch -> databaseClient.sql(statement + String.join(", ",
+                        rows.subList(batch * SEED_BATCH, Math.min(rows.size(), (batch + 1) * SEED_BATCH)))).then())
+                .blockLast();
+    }
+
+    private List<Account> accounts(String userType) {
+        String role = "ROLE_" + userType;
+        return databaseClient.sql("SELECT user_id, email FROM users WHERE user_type = :userType")
+                .bind("userType", userType)
+                .map(row -> {
+                    long userId = row.get("user_id", Long.class);
+                    String email = row.get("email", String.class);
+                    List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+                    AuthenticatedUser principal = new AuthenticatedUser(userId, email, "", authorities);
+                    String token = jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken(principal, null, authorities), userType);
+                    return new Account(userId, email, token);
+                })
+                .all()
+                .collectList()
+                .block();
+    }
+
+    private long number(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, Long.class)).one().block();
+    }
+
+    private static String email(String userType, int i) {
+        return userType.toLowerCase(Locale.ROOT) + i + "@loadtest.com";
+    }
+
+    private static String travelDate(ThreadLocalRandom random) {
+        return LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365)).toString();
+    }
+
+    // ---- the operation mix
+
+    private List<Operation> operations() {
+        List<Operation> operations = List.of(
+                new Operation("getCurrentUserProfile", weight("getCurrentUserProfile"), random -> new Request(
+                        "query { getCurrentUserProfile { email firstName lastName city phoneNumber } }",
+                        Map.of(), anyOf(userAccounts, random).token())),
+                new Operation("myBookings", weight("myBookings"), random -> new Request(
+                        "query MyBookings($status: String) { myBookings(first: 10, status: $status) { edges { cursor node { bookingId destination bookingDate status } } pageInfo { hasNextPage endCursor } } }",
+                        random.nextInt(4) == 0 ? Map.of("status", "CONFIRMED") : Map.of(), anyOf(userAccounts, random).token())),
+                new Operation("getAllBookingForAUser", weight("getAllBookingForAUser"), random -> new Request(
+                        "query { getAllBookingForAUser { bookingId destination rate bookingDate numberOfPeople status } }",
+                        Map.of(), anyOf(userAccounts, random).token())),
+                new Operation("createBooking", weight("createBooking"), random -> new Request(
+                        "mutation CreateBooking($booking: BookingInput!, $key: String) { createBooking(bookingDTO: $booking, idempotencyKey: $key) { destination bookingDate numberOfPeople } }",
+                        Map.of("booking", Map.of(
+                                        "destination", DESTINATIONS.get(random.nextInt(DESTINATIONS.size())),
+                                        "rate", random.nextInt(2000, 40000),
+                                        "bookingDate", travelDate(random),
+                                        "numberOfPeople", random.nextInt(1, 6)),
+                                "key", UUID.randomUUID().toString()),
+                        anyOf(userAccounts, random).token())),
+                new Operation("loginUser", weight("loginUser"), random -> new Request(
+                        "mutation Login($email: String!, $password: String!) { loginUser(email: $email, password: $password) { token error } }",
+                        Map.of("email", anyOf(userAccounts, random).email(), "password", PASSWORD), null)),
+                new Operation("registerUser", weight("registerUser"), random -> new Request(
+                        "mutation Register($user: UserRegisterDTO!) { registerUser(userRegisterDTO: $user) { email } }",
+                        Map.of("user", Map.of(
+                                "email", "registered" + registrations.incrementAndGet() + "-" + UUID.randomUUID() + "@loadtest.com",
+                                "password", PASSWORD,
+                                "firstName", "New",
+                                "lastName", "User",
+                                "aadharNumber", "123412341234",
+                                "city", "Pune",
+                                "phoneNumber", "9876543210")), null)),
+                new Operation("getBookingById", weight("getBookingById"), random -> new Request(
+                        "query Booking($id: ID!) { getBookingById(bookingId: $id) { bookingId userId destination status } }",
+                        Map.of("id", random.nextLong(minBookingId, maxBookingId + 1)), anyOf(adminAccounts, random).token())),
+                new Operation("bookings", weight("bookings"), random -> new Request(
+                        "query Bookings($destination: String) { bookings(first: 20, destination: $destination) { edges { node { bookingId userId destination bookingDate status } } pageInfo { hasNextPage endCursor } } }",
+                        Map.of("destination", DESTINATIONS.get(random.nextInt(DESTINATIONS.size()))), anyOf(adminAccounts, random).token())),
+                new Operation("getUsers", weight("getUsers"), random -> new Request(
+                        "query { getUsers(first: 20) { edges { node { userId email firstName lastName city } } pageInfo { hasNextPage endCursor } } }",
+                        Map.of(), anyOf(adminAccounts, random).token())),
+                new Operation("getUserById", weight("getUserById"), random -> new Request(
+                        "query User($id: ID!) { getUserById(userId: $id) { userId email firstName lastName city } }",
+                        Map.of("id", anyOf(userAccounts, random).userId()), anyOf(adminAccounts, random).token())));
+        return operations.stream().filter(operation -> operation.weight() > 0).toList();
+    }
+
+    private int weight(String operation) {
+        return environment.getProperty("tourplanner.loadtest.mix." + operation, Integer.class, 0);
+    }
+
+    private static Account anyOf(List<Account> accounts, ThreadLocalRandom random) {
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    private static Operation pick(List<Operation> mix, int totalWeight, ThreadLocalRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : mix) {
+            ticket -= operation.weight();
+            if (ticket < 0) return operation;
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    // ---- driving
+
+    private Mono<Outcome> send(Request request) {
+        return webClient.post().uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (request.token() != null) headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + request.token());
+                })
+                .bodyValue(Map.of("query", request.query(), "variables", request.variables()))
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == 503) {
+                        return response.releaseBody().thenReturn(Outcome.SHED);
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody().thenReturn(Outcome.HTTP_ERROR);
+                    }
+                    return response.bodyToMono(JsonNode.class)
+                            .map(body -> body.path("errors").isEmpty() ? Outcome.OK : Outcome.ERROR);
+                });
+    }
+
+    private double calibrate(Operation operation) {
+        StatementCountingListener.reset();
+        Flux.range(0, calibrationRuns)
+                .concatMap(i -> send(operation.request().apply(ThreadLocalRandom.current())))
+                .blockLast();
+        return (double) StatementCountingListener.count() / calibrationRuns;
+    }
+
+    // Virtual users send one operation after the other until the time is up; returns the elapsed nanos
+    private long run(List<Operation> mix, Duration length, Map<String, OperationStats> stats) {
+        int totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+        long start = System.nanoTime();
+        long deadline = start + length.toNanos();
+
+        Flux.range(0, virtualUsers)
+                .flatMap(virtualUser -> Mono.defer(() -> {
+                            ThreadLocalRandom random = ThreadLocalRandom.current();
+                            Operation operation = pick(mix, totalWeight, random);
+                            Request request = operation.request().apply(random);
+                            long sent = System.nanoTime();
+                            return send(request)
+                                    .onErrorReturn(Outcome.HTTP_ERROR)
+                                    .doOnNext(outcome -> {
+                                        OperationStats operationStats = stats.get(operation.name());
+                                        if (operationStats != null) operationStats.record(outcome, System.nanoTime() - sent);
+                                    })
+                                    // A shed client waits for Retry-After like a real one, instead of spinning on 503s
+                                    .flatMap(outcome -> outcome == Outcome.SHED ? Mono.delay(shedBackoff).thenReturn(outcome) : Mono.just(outcome));
+                        })
+                        .repeat(() -> System.nanoTime() < deadline), virtualUsers)
+                .blockLast();
+        return System.nanoTime() - start;
+    }
+
+    // ---- reporting
+
+    private String report(Map<String, OperationStats> stats, Map<String, Double> statementsPerCall, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "GraphQL load test: %d virtual users for %.0fs, %d users, %d bookings%n%n",
+                virtualUsers, seconds, users, (long) users * bookingsPerUser));
+        report.append("| Operation | Calls | Errors | Shed | ops/s | p50 ms | p99 ms | p999 ms | Statements/call |\n");
+        report.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+
+        OperationStats total = new OperationStats();
+        stats.forEach((name, operationStats) -> {
+            report.append(row(name, operationStats, seconds, statementsPerCall.get(name)));
+            total.addAll(operationStats);
+        });
+        report.append(row("total", total, seconds, null));
+        return report.toString();
+    }
+
+    private static String row(String name, OperationStats stats, double seconds, Double statements) {
+        long[] latencies = stats.sortedLatencies();
+        long calls = Arrays.stream(Outcome.values()).mapToLong(stats::count).sum();
+        return String.format(Locale.ROOT, "| %s | %d | %d | %d | %.1f | %.2f | %.2f | %.2f | %s |%n",
+                name, calls, stats.count(Outcome.ERROR), stats.count(Outcome.SHED), latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                statements == null ? "" : String.format(Locale.ROOT, "%.1f", statements));
+    }
+
+    // Nearest-rank percentile, in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static class OperationStats {
+        private long[] latencies = new long[1024];
+        private int size;
+        private final long[] outcomes = new long[Outcome.values().length];
+
+        // Shed requests are counted but left out of the latencies, they never reached the application
+        synchronized void record(Outcome outcome, long latencyNanos) {
+            outcomes[outcome.ordinal()]++;
+            if (outcome == Outcome.SHED) return;
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+        }
+
+        synchronized void addAll(OperationStats other) {
+            long[] sorted = other.sortedLatencies();
+            for (Outcome outcome : Outcome.values()) {
+                outcomes[outcome.ordinal()] += other.count(outcome);
+            }
+            if (size + sorted.length > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(size + sorted.length, latencies.length * 2));
+            }
+            System.arraycopy(sorted, 0, latencies, size, sorted.length);
+            size += sorted.length;
+        }
+
+        synchronized long count(Outcome outcome) {
+            return outcomes[outcome.ordinal()];
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
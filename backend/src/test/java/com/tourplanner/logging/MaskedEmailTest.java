@@ -0,0 +1,27 @@
+package com.tourplanner.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MaskedEmailTest {
+
+    @Test
+    void testMask() {
+        assertEquals("j***@gmail.com", MaskedEmail.mask("john@gmail.com"));
+        assertEquals("***@gmail.com", MaskedEmail.mask("jo@gmail.com"));
+        assertEquals("***@gmail.com", MaskedEmail.mask("@gmail.com"));
+        assertEquals("j***@gmail.com", MaskedEmail.mask("john@gmail.com@extra"));
+        assertEquals("hidden", MaskedEmail.mask("not-an-email"));
+        assertEquals("hidden", MaskedEmail.mask(null));
+    }
+
+    @Test
+    void testToStringIsBuiltOnceAndKept() {
+        MaskedEmail email = MaskedEmail.of("john@gmail.com");
+        assertEquals("j***@gmail.com", email.toString());
+        assertSame(email.toString(), email.toString());
+        assertEquals("hidden", MaskedEmail.of(null).toString());
+    }
+}
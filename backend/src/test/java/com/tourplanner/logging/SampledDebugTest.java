@@ -0,0 +1,33 @@
+package com.tourplanner.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SampledDebugTest {
+
+    @Test
+    void testOneRowInRateIsLogged() {
+        Logger logger = mock(Logger.class);
+        when(logger.isDebugEnabled()).thenReturn(true);
+        SampledDebug rows = SampledDebug.every(10, logger);
+
+        long logged = IntStream.range(0, 100).filter(i -> rows.isEnabled()).count();
+
+        assertEquals(10, logged);
+    }
+
+    @Test
+    void testNothingIsLoggedWithDebugOff() {
+        Logger logger = mock(Logger.class);
+        SampledDebug rows = SampledDebug.every(1, logger);
+
+        assertFalse(rows.isEnabled());
+    }
+}
@@ -0,0 +1,70 @@
+package com.tourplanner.metrics;
+
+import com.tourplanner.exception.InvalidCursorException;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+    The metrics surface as Prometheus scrapes it, after some GraphQL and service traffic.
+*/
+
+@SpringBootTest(classes = MainApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///metrics?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "tourplanner.migration.enabled=true"
+})
+@AutoConfigureWebTestClient
+// Spring Boot tests switch metric exporters off unless asked for
+@AutoConfigureObservability
+public class PrometheusEndpointTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private void graphql(String query) {
+        webTestClient.post().uri("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("query", query))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void testPrometheusExposesServiceGraphQlAndPoolMetrics() {
+        graphql("mutation { loginUser(email: \"nobody@gmail.com\", password: \"secret\") { token error } }");
+        graphql("{ getBookingById(bookingId: 1) { bookingId } }");
+        StepVerifier.create(bookingService.getBookingsPage(10, "not-a-cursor", null, null, null, null))
+                .expectError(InvalidCursorException.class)
+                .verify();
+
+        String scrape = webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("service_method_seconds_bucket")
+                && line.contains("method=\"getBookingsPage\"") && line.contains("outcome=\"error\"")
+                && line.contains("exception=\"InvalidCursorException\"")), "service.method histogram");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("graphql_datafetcher_seconds_bucket")
+                && line.contains("graphql_field_name=\"loginUser\"")), "graphql.datafetcher histogram");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("graphql_errors_total")), "graphql.errors counter");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("r2dbc_pool_acquired_connections")), "r2dbc pool gauges");
+    }
+}
@@ -0,0 +1,104 @@
+package com.tourplanner.migration;
+
+import com.tourplanner.main.MainApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+    Migrations run on startup against an empty in-memory H2 (MySQL mode).
+*/
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///migration?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "tourplanner.migration.enabled=true"
+})
+public class SchemaMigratorTest {
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private List<String> strings(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, String.class)).all().collectList().block();
+    }
+
+    @Test
+    void testStartupAppliesAllMigrations() {
+        assertEquals(List.of("1", "2", "3", "4", "5"), strings("SELECT CAST(version AS VARCHAR) FROM schema_version ORDER BY version"));
+
+        List<String> indexes = strings("SELECT LOWER(index_name) FROM information_schema.indexes WHERE LOWER(table_name) = 'bookings'");
+        assertTrue(indexes.contains("idx_bookings_user_created"), indexes.toString());
+        assertTrue(indexes.contains("idx_bookings_status_booking_date"), indexes.toString());
+        assertTrue(indexes.contains("idx_bookings_created_booking"), indexes.toString());
+    }
+
+    @Test
+    void testSecondRunAppliesNothing() {
+        StepVerifier.create(schemaMigrator.migrate())
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testPartiallyAppliedMigrationRunsAgain() {
+        // V2 ran but was never recorded, its indexes already exist and are skipped
+        databaseClient.sql("DELETE FROM schema_version WHERE version = 2").then().block();
+
+        StepVerifier.create(schemaMigrator.migrate())
+                .expectNext(1L)
+                .verifyComplete();
+        assertEquals(List.of("1", "2", "3", "4", "5"), strings("SELECT CAST(version AS VARCHAR) FROM schema_version ORDER BY version"));
+    }
+
+    @Test
+    void testBookingsWithoutCreatedAtAreBackfilled() {
+        // A bookings table from before V5 that still holds a row without created_at
+        Flux.just(
+                "DELETE FROM schema_version WHERE version = 5",
+                "ALTER TABLE bookings MODIFY created_at DATETIME NULL",
+                "INSERT INTO users (user_id, email, password_hash) VALUES (900, 'legacy@gmail.com', 'x')",
+                "INSERT INTO bookings (booking_id, user_id, destination, created_at) VALUES (900, 900, 'Goa', NULL)")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        try {
+            StepVerifier.create(schemaMigrator.migrate())
+                    .expectNext(1L)
+                    .verifyComplete();
+
+            assertEquals(List.of("1970-01-01 00:00:00"),
+                    strings("SELECT FORMATDATETIME(created_at, 'yyyy-MM-dd HH:mm:ss') FROM bookings WHERE booking_id = 900"));
+            assertEquals(List.of("NO"),
+                    strings("SELECT is_nullable FROM information_schema.columns WHERE LOWER(table_name) = 'bookings' AND LOWER(column_name) = 'created_at'"));
+        } finally {
+            databaseClient.sql("DELETE FROM users WHERE user_id = 900").then().block();
+        }
+    }
+
+    @Test
+    void testChangedMigrationStopsStartup() {
+        String checksum = strings("SELECT checksum FROM schema_version WHERE version = 1").get(0);
+        databaseClient.sql("UPDATE schema_version SET checksum = 'edited' WHERE version = 1").then().block();
+        try {
+            StepVerifier.create(schemaMigrator.migrate())
+                    .expectErrorMatches(err -> err instanceof IllegalStateException
+                            && err.getMessage().equals("Migration V1 was changed after it was applied"))
+                    .verify();
+        } finally {
+            databaseClient.sql("UPDATE schema_version SET checksum = :checksum WHERE version = 1")
+                    .bind("checksum", checksum)
+                    .then().block();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///export?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+public class BookingExportRepositoryTest {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private BookingExportRepository bookingExportRepository;
+
+    @BeforeEach
+    void createSchema() {
+        Flux.just(
+                "DROP TABLE IF EXISTS bookings",
+                "CREATE TABLE bookings (booking_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, destination VARCHAR(100), " +
+                        "rate INT, booking_date DATE, number_of_people INT, created_at TIMESTAMP, status VARCHAR(50))",
+                "INSERT INTO bookings (user_id, destination, rate, booking_date, number_of_people, created_at, status) VALUES " +
+                        "(1, 'Goa', 5000, '2025-01-10', 2, '2025-01-01 10:00:00', 'CONFIRMED'), " +
+                        "(1, 'Mysore', 15000, '2025-06-10', 5, '2025-01-02 10:00:00', 'PENDING'), " +
+                        "(2, 'Udupi', 3000, '2025-06-20', 1, '2025-01-03 10:00:00', 'CONFIRMED'), " +
+                        "(2, 'Goa', 5000, '2025-12-10', 2, '2025-01-04 10:00:00', 'CONFIRMED')")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+    }
+
+    @Test
+    void testStreamAllInBookingIdOrder() {
+        StepVerifier.create(bookingExportRepository.streamBookings(null, null, null).map(Booking::getBookingId))
+                .expectNext(1L, 2L, 3L, 4L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testStreamFiltersByStatusAndDateRange() {
+        StepVerifier.create(bookingExportRepository.streamBookings("CONFIRMED", LocalDate.of(2025, 6, 1), LocalDate.of(2025, 12, 10)))
+                .expectNextMatches(b -> b.getBookingId() == 3L && "Udupi".equals(b.getDestination()))
+                .expectNextMatches(b -> b.getBookingId() == 4L && b.getBookingDate().equals(LocalDate.of(2025, 12, 10)))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,68 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.dto.BookingFilter;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Same H2 database settings as BookingExportRepositoryTest, so the test context is shared
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///export?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+public class BookingPageRepositoryTest {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private BookingPageRepository bookingPageRepository;
+
+    @BeforeEach
+    void createSchema() {
+        // Bookings 2 and 3 share created_at, booking_id breaks the tie
+        Flux.just(
+                "DROP TABLE IF EXISTS bookings",
+                "CREATE TABLE bookings (booking_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, destination VARCHAR(100), " +
+                        "rate INT, booking_date DATE, number_of_people INT, created_at TIMESTAMP, status VARCHAR(50))",
+                "INSERT INTO bookings (user_id, destination, rate, booking_date, number_of_people, created_at, status) VALUES " +
+                        "(1, 'Goa', 5000, '2025-01-10', 2, '2025-01-01 10:00:00', 'CONFIRMED'), " +
+                        "(1, 'Goa', 5000, '2025-06-10', 5, '2025-01-02 10:00:00', 'PENDING'), " +
+                        "(2, 'Goa', 3000, '2025-06-20', 1, '2025-01-02 10:00:00', 'CONFIRMED'), " +
+                        "(2, 'Udupi', 5000, '2025-12-10', 2, '2025-01-04 10:00:00', 'CONFIRMED')")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+    }
+
+    @Test
+    void testPagesWalkNewestFirstWithoutGapsOrRepeats() {
+        BookingFilter all = new BookingFilter();
+
+        StepVerifier.create(bookingPageRepository.findPage(all, null, null, 2).map(Booking::getBookingId))
+                .expectNext(4L, 3L)
+                .verifyComplete();
+
+        // Continue after booking 3, which has the same created_at as booking 2
+        StepVerifier.create(bookingPageRepository.findPage(all, LocalDateTime.of(2025, 1, 2, 10, 0), 3L, 2).map(Booking::getBookingId))
+                .expectNext(2L, 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFiltersPushedIntoQuery() {
+        BookingFilter filter = new BookingFilter(2L, "CONFIRMED", LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), "Goa");
+
+        StepVerifier.create(bookingPageRepository.findPage(filter, null, null, 10).map(Booking::getBookingId))
+                .expectNext(3L)
+                .verifyComplete();
+    }
+}
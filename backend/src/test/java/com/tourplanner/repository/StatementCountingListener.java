@@ -0,0 +1,28 @@
+package com.tourplanner.repository;
+
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Plugged into the connection URL as r2dbc:proxy:...?proxyListener=<this class>.
+    r2dbc-proxy creates the instance itself, so the count is kept in a static field.
+*/
+
+public class StatementCountingListener implements ProxyExecutionListener {
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @Override
+    public void afterQuery(QueryExecutionInfo execInfo) {
+        STATEMENTS.addAndGet(execInfo.getQueries().size());
+    }
+
+    public static long count() {
+        return STATEMENTS.get();
+    }
+
+    public static void reset() {
+        STATEMENTS.set(0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.tourplanner.repository;
+
+import com.tourplanner.dto.AdminProfileDTO;
+import com.tourplanner.dto.UserProfileDTO;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.service.AdminService;
+import com.tourplanner.service.UserCache;
+import com.tourplanner.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/*
+    Runs against an in-memory H2 (MySQL mode) behind r2dbc-proxy and counts the
+    statements each profile read sends to the database. The user cache is cleared before each test.
+*/
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:proxy:h2:mem:///readpath?proxyListener=com.tourplanner.repository.StatementCountingListener&options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+public class UserProfileReadRepositoryTest {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void createSchema() {
+        Flux.just(
+                "DROP TABLE IF EXISTS profiles",
+                "DROP TABLE IF EXISTS users",
+                "CREATE TABLE users (user_id BIGINT AUTO_INCREMENT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE, " +
+                        "password_hash VARCHAR(255), user_type VARCHAR(20), created_at TIMESTAMP)",
+                "CREATE TABLE profiles (profile_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, first_name VARCHAR(100), " +
+                        "last_name VARCHAR(100), aadhar_number VARCHAR(20), city VARCHAR(100), phone_number VARCHAR(20))",
+                "INSERT INTO users (user_id, email, password_hash, user_type, created_at) VALUES " +
+                        "(1, 'user@gmail.com', 'x', 'USER', '2025-11-07 10:00:00'), " +
+                        "(2, 'admin@gmail.com', 'x', 'ADMIN', '2025-11-07 11:00:00'), " +
+                        "(3, 'noprofile@gmail.com', 'x', 'USER', '2025-11-07 12:00:00')",
+                "INSERT INTO profiles (user_id, first_name, last_name, aadhar_number, city, phone_number) VALUES " +
+                        "(1, 'Ashish', 'Shenoy', '123456789012', 'Mangalore', '9876543210'), " +
+                        "(2, 'Admin', 'Shenoy', '123456789013', 'Udupi', '9876543211')")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        userCache.invalidateAll();
+        StatementCountingListener.reset();
+    }
+
+    @Test
+    void testGetUserByEmailUsesOneStatement() {
+        AdminProfileDTO dto = adminService.getUserByEmail("user@gmail.com").block();
+
+        assertEquals(1L, dto.getUserId());
+        assertEquals("USER", dto.getUserType());
+        assertEquals("Ashish", dto.getFirstName());
+        assertEquals("Mangalore", dto.getCity());
+        assertEquals(1, StatementCountingListener.count());
+    }
+
+    @Test
+    void testProfileReadsUseOneStatementEach() {
+        adminService.getCurrentAdminProfile("admin@gmail.com").block();
+        adminService.getUserById(1L).block();
+        adminService.getAdminById(2L).block();
+        UserProfileDTO profile = userService.getCurrentUserProfile("user@gmail.com").block();
+
+        assertEquals("Shenoy", profile.getLastName());
+        assertEquals(4, StatementCountingListener.count());
+    }
+
+    @Test
+    void testRepeatedReadsServedFromCache() {
+        adminService.getUserById(1L).block();
+        adminService.getUserById(1L).block();
+        adminService.getUserById(1L).block();
+
+        assertEquals(1, StatementCountingListener.count());
+    }
+
+    @Test
+    void testTwoStepLookupUsedTwoStatements() {
+        // The previous read path: findByEmail followed by findByUserId
+        userRepository.findByEmail("user@gmail.com")
+                .flatMap(user -> profileRepository.findByUserId(user.getUserId()))
+                .block();
+
+        assertEquals(2, StatementCountingListener.count());
+    }
+
+    @Test
+    void testUserWithoutProfileStillReturned() {
+        AdminProfileDTO dto = adminService.getUserById(3L).block();
+
+        assertEquals("noprofile@gmail.com", dto.getEmail());
+        assertNull(dto.getFirstName());
+        assertEquals(1, StatementCountingListener.count());
+    }
+}
@@ -0,0 +1,144 @@
+package com.tourplanner.security;
+
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.User;
+import com.tourplanner.repository.UserRepository;
+import com.tourplanner.service.UserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = MainApplication.class)
+public class JwtAuthenticationFilterTest {
+    private static final int REQUESTS = 1000;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtGenerator jwtGenerator;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void clearUserCache() {
+        userCache.invalidateAll();
+    }
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    private String loginToken(Long userId, String email, String userType) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + userType));
+        AuthenticatedUser principal = new AuthenticatedUser(userId, email, "", authorities);
+        return jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken(principal, null, authorities), userType);
+    }
+
+    private Authentication filterOnce(String token) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/graphql")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        WebFilterChain chain = ex -> ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .doOnNext(seen::set)
+                .then();
+
+        jwtAuthenticationFilter.filter(exchange, chain).block();
+        return seen.get();
+    }
+
+    @Test
+    void testStatelessModeIssuesNoQueries() {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "stateless", true);
+        String token = loginToken(7L, "stateless@gmail.com", "USER");
+
+        Authentication authentication = null;
+        for (int i = 0; i < REQUESTS; i++) {
+            authentication = filterOnce(token);
+        }
+
+        assertEquals("stateless@gmail.com", authentication.getName());
+        assertEquals(7L, ((AuthenticatedUser) authentication.getPrincipal()).getUserId());
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void testDatabaseModeLooksUserUpThroughCache() {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "stateless", false);
+        String token = loginToken(8L, "db@gmail.com", "ADMIN");
+
+        User user = new User();
+        user.setUserId(8L);
+        user.setEmail("db@gmail.com");
+        user.setPasswordHash("hash");
+        user.setUserType("ADMIN");
+        when(userRepository.findByEmail("db@gmail.com")).thenReturn(Mono.just(user));
+
+        for (int i = 0; i < REQUESTS; i++) {
+            filterOnce(token);
+        }
+
+        // Every request resolves the user, only the first one reaches the repository
+        verify(userRepository, times(1)).findByEmail("db@gmail.com");
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "stateless", true);
+    }
+
+    @Test
+    void testRevokedTokenRejected() {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "stateless", true);
+        String token = loginToken(9L, "revoked@gmail.com", "USER");
+
+        tokenDenylist.revoke("revoked@gmail.com");
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/graphql")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+        AtomicBoolean chainCalled = new AtomicBoolean();
+        StepVerifier.create(jwtAuthenticationFilter.filter(exchange, ex -> Mono.fromRunnable(() -> chainCalled.set(true))))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertFalse(chainCalled.get());
+        verify(userRepository, never()).findByEmail(any());
+
+        // The WebSocket path still gets the error itself
+        StepVerifier.create(jwtAuthenticationFilter.authenticate(token))
+                .expectError(AuthenticationCredentialsNotFoundException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,45 @@
+package com.tourplanner.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoginRateLimiterTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // 5 attempts per minute per email, 8 per minute per address
+    private final LoginRateLimiter limiter = new LoginRateLimiter(meterRegistry, true,
+            5, Duration.ofMinutes(1), 8, Duration.ofMinutes(1), Duration.ofMinutes(10), 1000, clock::get);
+
+    @Test
+    void testBurstThenOneAttemptPerInterval() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("a@gmail.com", "10.0.0.1"));
+        }
+        long wait = limiter.tryAcquire("A@Gmail.com ", "10.0.0.2");
+        assertEquals(Duration.ofSeconds(12).toNanos(), wait);
+        assertEquals("Too many login attempts, try again in 12 seconds", limiter.throttledMessage(wait));
+
+        // One emission interval later exactly one more attempt fits
+        clock.addAndGet(Duration.ofSeconds(12).toNanos());
+        assertEquals(0, limiter.tryAcquire("a@gmail.com", "10.0.0.3"));
+        assertTrue(limiter.tryAcquire("a@gmail.com", "10.0.0.3") > 0);
+        assertEquals(2, meterRegistry.counter("login.throttled", "key", "email").count());
+    }
+
+    @Test
+    void testAddressIsThrottledAcrossEmails() {
+        for (int i = 0; i < 8; i++) {
+            assertEquals(0, limiter.tryAcquire("user" + i + "@gmail.com", "10.0.0.9"));
+        }
+        assertTrue(limiter.tryAcquire("other@gmail.com", "10.0.0.9") > 0);
+        // The email itself wasn't charged, it can still log in from elsewhere
+        assertEquals(0, limiter.tryAcquire("other@gmail.com", "10.0.0.10"));
+        assertEquals(1, meterRegistry.counter("login.throttled", "key", "address").count());
+    }
+}
@@ -0,0 +1,86 @@
+package com.tourplanner.security;
+
+import com.tourplanner.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordHashingExecutorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void testEncodeRunsOffCallerThread() {
+        executor = new PasswordHashingExecutor(1, 4, meterRegistry);
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+        StepVerifier.create(executor.encode(new ThreadRecordingEncoder(encoder), "secret"))
+                .assertNext(hash -> assertTrue(encoder.matches("secret", hash)))
+                .verifyComplete();
+    }
+
+    @Test
+    void testEncodeRejectsWhenQueueIsFull() throws InterruptedException {
+        executor = new PasswordHashingExecutor(1, 1, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BlockingEncoder(started, release);
+
+        // One task occupies the only thread, one waits in the queue
+        executor.encode(blocking, "a").subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.encode(blocking, "b").subscribe();
+
+        StepVerifier.create(executor.encode(blocking, "c"))
+                .expectError(ServiceBusyException.class)
+                .verify();
+
+        release.countDown();
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+
+    private record ThreadRecordingEncoder(PasswordEncoder delegate) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            assertTrue(Thread.currentThread().getName().startsWith("password-hashing-"));
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
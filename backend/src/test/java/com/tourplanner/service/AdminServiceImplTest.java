@@ -3,6 +3,7 @@ package com.tourplanner.service;
 import com.tourplanner.dto.AdminProfileDTO;
 import com.tourplanner.dto.UserProfileDTO;
 import com.tourplanner.exception.BookingIdNotFoundException;
+import com.tourplanner.exception.InvalidCursorException;
 import com.tourplanner.exception.UserNotFoundException;
 import com.tourplanner.main.MainApplication;
 import com.tourplanner.model.Booking;
@@ -10,20 +11,32 @@ import com.tourplanner.model.Profile;
 import com.tourplanner.model.User;
 import com.tourplanner.repository.BookingRepository;
 import com.tourplanner.repository.ProfileRepository;
+import com.tourplanner.repository.UserProfileReadRepository;
 import com.tourplanner.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +45,19 @@ public class AdminServiceImplTest {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private UserCache userCache;
+
+    @MockitoBean
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void clearUserCache() {
+        userCache.invalidateAll();
+        // No database in these tests, the transaction boundary just passes the work through
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
     @MockitoBean
     private UserRepository userRepository;
 
@@ -41,6 +67,27 @@ public class AdminServiceImplTest {
     @MockitoBean
     private BookingRepository bookingRepository;
 
+    @MockitoBean
+    private UserProfileReadRepository userProfileReadRepository;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    // What the users JOIN profiles row mapper produces for this user and profile
+    private AdminProfileDTO joinedRow(User user, Profile profile) {
+        return new AdminProfileDTO(
+                user.getUserId(),
+                user.getEmail(),
+                user.getUserType(),
+                user.getCreatedAt(),
+                profile != null ? profile.getFirstName() : null,
+                profile != null ? profile.getLastName() : null,
+                profile != null ? profile.getAadharNumber() : null,
+                profile != null ? profile.getCity() : null,
+                profile != null ? profile.getPhoneNumber() : null
+        );
+    }
+
     @Test
     void testGetCurrentAdminProfileSuccess() {
         String email = "admin@gmail.com";
@@ -59,8 +106,7 @@ public class AdminServiceImplTest {
         profile.setCity("Mangalore");
         profile.setPhoneNumber("9876543210");
 
-        when(userRepository.findByEmail(email)).thenReturn(Mono.just(user));
-        when(profileRepository.findByUserId(1L)).thenReturn(Mono.just(profile));
+        when(userProfileReadRepository.findAdminProfileByEmail(email)).thenReturn(Mono.just(joinedRow(user, profile)));
 
         Mono<AdminProfileDTO> result = adminService.getCurrentAdminProfile(email);
 
@@ -78,14 +124,14 @@ public class AdminServiceImplTest {
                 })
                 .verifyComplete();
 
-        verify(userRepository).findByEmail(email);
-        verify(profileRepository).findByUserId(1L);
+        verify(userProfileReadRepository).findAdminProfileByEmail(email);
+        verify(profileRepository, never()).findByUserId(any());
     }
 
     @Test
     void testGetCurrentAdminProfileFail() {
         String email = "unknown@gmail.com";
-        when(userRepository.findByEmail(email)).thenReturn(Mono.empty());
+        when(userProfileReadRepository.findAdminProfileByEmail(email)).thenReturn(Mono.empty());
 
         Mono<AdminProfileDTO> result = adminService.getCurrentAdminProfile(email);
 
@@ -96,7 +142,7 @@ public class AdminServiceImplTest {
                 )
                 .verify();
 
-        verify(userRepository).findByEmail(email);
+        verify(userProfileReadRepository).findAdminProfileByEmail(email);
     }
 
     @Test
@@ -117,8 +163,7 @@ public class AdminServiceImplTest {
         profile.setCity("Mangalore");
         profile.setPhoneNumber("9876543210");
 
-        when(userRepository.findById(userId)).thenReturn(Mono.just(user));
-        when(profileRepository.findByUserId(userId)).thenReturn(Mono.just(profile));
+        when(userProfileReadRepository.findAdminProfileById(userId)).thenReturn(Mono.just(joinedRow(user, profile)));
 
         Mono<AdminProfileDTO> result = adminService.getUserById(userId);
 
@@ -136,14 +181,14 @@ public class AdminServiceImplTest {
                 })
                 .verifyComplete();
 
-        verify(userRepository).findById(userId);
-        verify(profileRepository).findByUserId(userId);
+        verify(userProfileReadRepository).findAdminProfileById(userId);
+        verify(profileRepository, never()).findByUserId(any());
     }
 
     @Test
     void testGetUserByIdUserNotFound() {
         Long userId = 99L;
-        when(userRepository.findById(userId)).thenReturn(Mono.empty());
+        when(userProfileReadRepository.findAdminProfileById(userId)).thenReturn(Mono.empty());
 
         Mono<AdminProfileDTO> result = adminService.getUserById(userId);
 
@@ -154,7 +199,7 @@ public class AdminServiceImplTest {
                 )
                 .verify();
 
-        verify(userRepository).findById(userId);
+        verify(userProfileReadRepository).findAdminProfileById(userId);
     }
 
     @Test
@@ -166,7 +211,7 @@ public class AdminServiceImplTest {
         adminUser.setEmail("admin@gmail.com");
         adminUser.setUserType("ADMIN");
 
-        when(userRepository.findById(userId)).thenReturn(Mono.just(adminUser));
+        when(userProfileReadRepository.findAdminProfileById(userId)).thenReturn(Mono.just(joinedRow(adminUser, null)));
 
         Mono<AdminProfileDTO> result = adminService.getUserById(userId);
 
@@ -177,7 +222,7 @@ public class AdminServiceImplTest {
                 )
                 .verify();
 
-        verify(userRepository).findById(userId);
+        verify(userProfileReadRepository).findAdminProfileById(userId);
     }
 
     @Test
@@ -198,8 +243,7 @@ public class AdminServiceImplTest {
         profile.setCity("Mangalore");
         profile.setPhoneNumber("9876543210");
 
-        when(userRepository.findById(userId)).thenReturn(Mono.just(admin));
-        when(profileRepository.findByUserId(userId)).thenReturn(Mono.just(profile));
+        when(userProfileReadRepository.findAdminProfileById(userId)).thenReturn(Mono.just(joinedRow(admin, profile)));
 
         Mono<AdminProfileDTO> result = adminService.getAdminById(userId);
 
@@ -216,14 +260,14 @@ public class AdminServiceImplTest {
                 })
                 .verifyComplete();
 
-        verify(userRepository).findById(userId);
-        verify(profileRepository).findByUserId(userId);
+        verify(userProfileReadRepository).findAdminProfileById(userId);
+        verify(profileRepository, never()).findByUserId(any());
     }
 
     @Test
     void testGetAdminByIdUserNotFound() {
         Long userId = 99L;
-        when(userRepository.findById(userId)).thenReturn(Mono.empty());
+        when(userProfileReadRepository.findAdminProfileById(userId)).thenReturn(Mono.empty());
 
         Mono<AdminProfileDTO> result = adminService.getAdminById(userId);
 
@@ -234,7 +278,7 @@ public class AdminServiceImplTest {
                 )
                 .verify();
 
-        verify(userRepository).findById(userId);
+        verify(userProfileReadRepository).findAdminProfileById(userId);
     }
 
     @Test
@@ -246,7 +290,7 @@ public class AdminServiceImplTest {
         regularUser.setEmail("user@gmail.com");
         regularUser.setUserType("USER");
 
-        when(userRepository.findById(userId)).thenReturn(Mono.just(regularUser));
+        when(userProfileReadRepository.findAdminProfileById(userId)).thenReturn(Mono.just(joinedRow(regularUser, null)));
 
         Mono<AdminProfileDTO> result = adminService.getAdminById(userId);
 
@@ -257,7 +301,7 @@ public class AdminServiceImplTest {
                 )
                 .verify();
 
-        verify(userRepository).findById(userId);
+        verify(userProfileReadRepository).findAdminProfileById(userId);
     }
 
     @Test
@@ -278,8 +322,7 @@ public class AdminServiceImplTest {
         profile.setCity("Mangalore");
         profile.setPhoneNumber("9876543210");
 
-        when(userRepository.findByEmail(email)).thenReturn(Mono.just(user));
-        when(profileRepository.findByUserId(user.getUserId())).thenReturn(Mono.just(profile));
+        when(userProfileReadRepository.findAdminProfileByEmail(email)).thenReturn(Mono.just(joinedRow(user, profile)));
 
         Mono<AdminProfileDTO> result = adminService.getUserByEmail(email);
 
@@ -296,15 +339,15 @@ public class AdminServiceImplTest {
                 })
                 .verifyComplete();
 
-        verify(userRepository).findByEmail(email);
-        verify(profileRepository).findByUserId(user.getUserId());
+        verify(userProfileReadRepository).findAdminProfileByEmail(email);
+        verify(profileRepository, never()).findByUserId(any());
     }
 
     @Test
     void testGetUserByEmailUserNotFound() {
         String email = "missing@gmail.com";
 
-        when(userRepository.findByEmail(email)).thenReturn(Mono.empty());
+        when(userProfileReadRepository.findAdminProfileByEmail(email)).thenReturn(Mono.empty());
 
         Mono<AdminProfileDTO> result = adminService.getUserByEmail(email);
 
@@ -315,7 +358,7 @@ public class AdminServiceImplTest {
                 )
                 .verify();
 
-        verify(userRepository).findByEmail(email);
+        verify(userProfileReadRepository).findAdminProfileByEmail(email);
     }
 
     @Test
@@ -327,7 +370,7 @@ public class AdminServiceImplTest {
         admin.setEmail(email);
         admin.setUserType("ADMIN");
 
-        when(userRepository.findByEmail(email)).thenReturn(Mono.just(admin));
+        when(userProfileReadRepository.findAdminProfileByEmail(email)).thenReturn(Mono.just(joinedRow(admin, null)));
 
         Mono<AdminProfileDTO> result = adminService.getUserByEmail(email);
 
@@ -338,7 +381,7 @@ public class AdminServiceImplTest {
                 )
                 .verify();
 
-        verify(userRepository).findByEmail(email);
+        verify(userProfileReadRepository).findAdminProfileByEmail(email);
     }
 
     @Test
@@ -376,9 +419,8 @@ public class AdminServiceImplTest {
         profile2.setCity("Bangalore");
         profile2.setPhoneNumber("8888888888");
 
-        when(userRepository.findAll()).thenReturn(Flux.just(user1, user2, admin));
-        when(profileRepository.findByUserId(1L)).thenReturn(Mono.just(profile1));
-        when(profileRepository.findByUserId(2L)).thenReturn(Mono.just(profile2));
+        when(userRepository.findByUserType("USER")).thenReturn(Flux.just(user1, user2));
+        when(profileRepository.findByUserIdIn(List.of(1L, 2L))).thenReturn(Flux.just(profile1, profile2));
 
         Flux<AdminProfileDTO> result = adminService.getAllUser();
 
@@ -397,14 +439,47 @@ public class AdminServiceImplTest {
                 )
                 .verifyComplete();
 
-        verify(userRepository).findAll();
-        verify(profileRepository).findByUserId(1L);
-        verify(profileRepository).findByUserId(2L);
+        verify(userRepository).findByUserType("USER");
+        verify(userRepository, never()).findAll();
+        verify(profileRepository).findByUserIdIn(List.of(1L, 2L));
+        verify(profileRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void testGetAllUserBatchesProfileQueries() {
+        // 1200 users used to cost 1200 profile queries, with a batch size of 500 it is 3
+        List<User> users = new ArrayList<>();
+        List<Profile> profiles = new ArrayList<>();
+        for (long id = 1; id <= 1200; id++) {
+            User user = new User();
+            user.setUserId(id);
+            user.setEmail("user" + id + "@gmail.com");
+            user.setUserType("USER");
+            users.add(user);
+
+            Profile profile = new Profile();
+            profile.setUserId(id);
+            profile.setFirstName("user" + id);
+            profiles.add(profile);
+        }
+
+        when(userRepository.findByUserType("USER")).thenReturn(Flux.fromIterable(users));
+        when(profileRepository.findByUserIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return Flux.fromIterable(profiles).filter(profile -> ids.contains(profile.getUserId()));
+        });
+
+        StepVerifier.create(adminService.getAllUser())
+                .expectNextCount(1200)
+                .verifyComplete();
+
+        verify(profileRepository, times(3)).findByUserIdIn(anyCollection());
+        verify(profileRepository, never()).findByUserId(any());
     }
 
     @Test
     void testGetAllUserNoUsersFound() {
-        when(userRepository.findAll()).thenReturn(Flux.empty());
+        when(userRepository.findByUserType("USER")).thenReturn(Flux.empty());
 
         Flux<AdminProfileDTO> result = adminService.getAllUser();
 
@@ -412,7 +487,81 @@ public class AdminServiceImplTest {
                 .expectNextCount(0)
                 .verifyComplete();
 
-        verify(userRepository).findAll();
+        verify(userRepository).findByUserType("USER");
+    }
+
+    @Test
+    void testGetUsersPageFirstPage() {
+        User user1 = new User();
+        user1.setUserId(1L);
+        user1.setEmail("user1@gmail.com");
+        user1.setUserType("USER");
+
+        User user2 = new User();
+        user2.setUserId(2L);
+        user2.setEmail("user2@gmail.com");
+        user2.setUserType("USER");
+
+        User user3 = new User();
+        user3.setUserId(3L);
+        user3.setEmail("user3@gmail.com");
+        user3.setUserType("USER");
+
+        Profile profile1 = new Profile();
+        profile1.setUserId(1L);
+        profile1.setFirstName("Ashish");
+
+        Profile profile2 = new Profile();
+        profile2.setUserId(2L);
+        profile2.setFirstName("Shenoy");
+
+        // first = 2 asks for 3 rows, the third one only signals hasNextPage
+        when(userRepository.findPageByUserType("USER", 0L, 3)).thenReturn(Flux.just(user1, user2, user3));
+        when(profileRepository.findByUserIdIn(List.of(1L, 2L))).thenReturn(Flux.just(profile1, profile2));
+
+        StepVerifier.create(adminService.getUsersPage(2, null))
+                .assertNext(connection -> {
+                    assertEquals(2, connection.getEdges().size());
+                    assertEquals("user1@gmail.com", connection.getEdges().get(0).getNode().getEmail());
+                    assertEquals("Shenoy", connection.getEdges().get(1).getNode().getFirstName());
+                    assertTrue(connection.getPageInfo().isHasNextPage());
+                    assertFalse(connection.getPageInfo().isHasPreviousPage());
+                    assertEquals(2L, CursorCodec.decodeLong(connection.getPageInfo().getEndCursor()));
+                })
+                .verifyComplete();
+
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetAdminsPageAfterCursor() {
+        User admin = new User();
+        admin.setUserId(8L);
+        admin.setEmail("admin@gmail.com");
+        admin.setUserType("ADMIN");
+
+        Profile profile = new Profile();
+        profile.setUserId(8L);
+        profile.setFirstName("Ashish");
+
+        when(userRepository.findPageByUserType("ADMIN", 5L, 21)).thenReturn(Flux.just(admin));
+        when(profileRepository.findByUserIdIn(List.of(8L))).thenReturn(Flux.just(profile));
+
+        StepVerifier.create(adminService.getAdminsPage(null, CursorCodec.encode(5L)))
+                .assertNext(connection -> {
+                    assertEquals(1, connection.getEdges().size());
+                    assertEquals(8L, connection.getEdges().get(0).getNode().getUserId());
+                    assertFalse(connection.getPageInfo().isHasNextPage());
+                    assertTrue(connection.getPageInfo().isHasPreviousPage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetUsersPageInvalidCursor() {
+        StepVerifier.create(adminService.getUsersPage(10, "not-a-cursor"))
+                .expectError(InvalidCursorException.class)
+                .verify();
     }
 
     @Test
@@ -512,14 +661,8 @@ public class AdminServiceImplTest {
         existingBooking.setDestination("Goa");
         existingBooking.setStatus("PENDING");
 
-        Booking updatedBooking = new Booking();
-        updatedBooking.setBookingId(bookingId);
-        updatedBooking.setUserId(10L);
-        updatedBooking.setDestination("Goa");
-        updatedBooking.setStatus(status);
-
         when(bookingRepository.findById(bookingId)).thenReturn(Mono.just(existingBooking));
-        when(bookingRepository.save(existingBooking)).thenReturn(Mono.just(updatedBooking));
+        when(bookingRepository.updateStatusIf(bookingId, "PENDING", status)).thenReturn(Mono.just(1L));
 
         Mono<Booking> result = adminService.updateUserBooking(bookingId, status);
 
@@ -528,7 +671,45 @@ public class AdminServiceImplTest {
                 .verifyComplete();
 
         verify(bookingRepository).findById(bookingId);
-        verify(bookingRepository).save(existingBooking);
+        verify(bookingRepository).updateStatusIf(bookingId, "PENDING", status);
+    }
+
+    @Test
+    void testUpdateUserBookingCancelReleasesSeats() {
+        Booking booking = new Booking();
+        booking.setBookingId(2L);
+        booking.setDestination("Goa");
+        booking.setBookingDate(LocalDate.parse("2025-12-20"));
+        booking.setNumberOfPeople(4);
+        booking.setStatus("CONFIRMED");
+
+        when(bookingRepository.findById(2L)).thenReturn(Mono.just(booking));
+        when(bookingRepository.updateStatusIf(2L, "CONFIRMED", "CANCELLED")).thenReturn(Mono.just(1L));
+        when(inventoryService.release("Goa", LocalDate.parse("2025-12-20"), 4)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adminService.updateUserBooking(2L, "CANCELLED"))
+                .expectNextMatches(b -> b.getStatus().equals("CANCELLED"))
+                .verifyComplete();
+
+        verify(inventoryService).release("Goa", LocalDate.parse("2025-12-20"), 4);
+        verify(inventoryService, never()).reserve(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateUserBookingLosingARaceDoesNotReleaseTwice() {
+        Booking confirmed = new Booking(3L, 10L, "Goa", 5000, LocalDate.parse("2025-12-20"), 4, LocalDateTime.now(), "CONFIRMED");
+        Booking cancelled = new Booking(3L, 10L, "Goa", 5000, LocalDate.parse("2025-12-20"), 4, LocalDateTime.now(), "CANCELLED");
+
+        // Another admin cancelled it between our read and our update
+        when(bookingRepository.findById(3L)).thenReturn(Mono.just(confirmed), Mono.just(cancelled));
+        when(bookingRepository.updateStatusIf(3L, "CONFIRMED", "CANCELLED")).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(adminService.updateUserBooking(3L, "CANCELLED"))
+                .expectNextMatches(b -> b.getStatus().equals("CANCELLED"))
+                .verifyComplete();
+
+        verify(bookingRepository, times(2)).findById(3L);
+        verify(inventoryService, never()).release(any(), any(), any());
     }
 
     @Test
@@ -614,6 +795,10 @@ public class AdminServiceImplTest {
 
         when(userRepository.findById(userId)).thenReturn(Mono.just(user));
         when(userRepository.delete(user)).thenReturn(Mono.empty());
+        when(bookingRepository.findByUserId(userId)).thenReturn(Flux.empty());
+        when(bookingRepository.deleteByUserId(userId)).thenReturn(Mono.just(2L));
+        when(profileRepository.deleteByUserId(userId)).thenReturn(Mono.just(1L));
+        when(inventoryService.releaseBookings(List.of())).thenReturn(Mono.empty());
 
         Mono<String> result = adminService.deleteUserById(userId);
 
@@ -623,6 +808,10 @@ public class AdminServiceImplTest {
 
         verify(userRepository).findById(userId);
         verify(userRepository).delete(user);
+        verify(bookingRepository).deleteByUserId(userId);
+        verify(profileRepository).deleteByUserId(userId);
+        verify(inventoryService).releaseBookings(List.of());
+        verify(transactionalOperator).transactional(ArgumentMatchers.<Mono<Object>>any());
     }
 
     @Test
@@ -0,0 +1,46 @@
+package com.tourplanner.service;
+
+import com.tourplanner.model.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookingEventPublisherTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingEventPublisher publisher = new BookingEventPublisher(meterRegistry, 4);
+
+    private static Booking booking(long bookingId) {
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        return booking;
+    }
+
+    @Test
+    void testSlowSubscriberLosesOldestEvents() {
+        StepVerifier.create(publisher.events().map(event -> event.getBooking().getBookingId()), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 10; id++) {
+                        publisher.bookingCreated(booking(id));
+                    }
+                })
+                .thenRequest(4)
+                .expectNext(7L, 8L, 9L, 10L)
+                .thenCancel()
+                .verify();
+
+        assertEquals(6.0, meterRegistry.get("booking.events.dropped").counter().count());
+    }
+
+    @Test
+    void testPublishWithoutSubscribers() {
+        publisher.bookingStatusChanged(booking(1L));
+
+        StepVerifier.create(publisher.events().map(event -> event.getBooking().getBookingId()))
+                .then(() -> publisher.bookingStatusChanged(booking(2L)))
+                .expectNext(2L)
+                .thenCancel()
+                .verify();
+    }
+}
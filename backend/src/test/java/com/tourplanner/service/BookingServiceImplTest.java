@@ -1,24 +1,40 @@
 package com.tourplanner.service;
 
 import com.tourplanner.dto.BookingDTO;
+import com.tourplanner.dto.BookingFilter;
+import com.tourplanner.exception.InvalidCursorException;
+import com.tourplanner.exception.InvalidFilterException;
 import com.tourplanner.exception.UserNotFoundException;
 import com.tourplanner.main.MainApplication;
 import com.tourplanner.model.Booking;
 import com.tourplanner.model.User;
+import com.tourplanner.repository.BookingPageRepository;
 import com.tourplanner.repository.BookingRepository;
 import com.tourplanner.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,12 +43,41 @@ public class BookingServiceImplTest {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private UserCache userCache;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void clearUserCache() {
+        userCache.invalidateAll();
+        // Seats are always available here, InventoryStressTest covers the real reservation
+        when(inventoryService.reserve(any(), any(), any())).thenReturn(Mono.empty());
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
     @MockitoBean
     private UserRepository userRepository;
 
     @MockitoBean
     private BookingRepository bookingRepository;
 
+    @MockitoBean
+    private BookingPageRepository bookingPageRepository;
+
+    private static Booking booking(long bookingId, LocalDateTime createdAt) {
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setUserId(1L);
+        booking.setDestination("Goa");
+        booking.setCreatedAt(createdAt);
+        return booking;
+    }
+
     @Test
     void testCreateBookingSuccess() {
         BookingDTO bookingDTO = new BookingDTO();
@@ -91,4 +136,76 @@ public class BookingServiceImplTest {
 
         verify(userRepository).findByEmail("test@gmail.com");
     }
+
+    @Test
+    void testGetBookingsPageFirstPage() {
+        LocalDateTime now = LocalDateTime.of(2025, 11, 7, 10, 0);
+        when(bookingPageRepository.findPage(any(BookingFilter.class), isNull(), isNull(), eq(3)))
+                .thenReturn(Flux.just(booking(9L, now), booking(8L, now), booking(5L, now.minusDays(1))));
+
+        StepVerifier.create(bookingService.getBookingsPage(2, null, "PENDING", "2025-01-01", null, "Goa"))
+                .assertNext(connection -> {
+                    assertEquals(2, connection.getEdges().size());
+                    assertEquals(9L, connection.getEdges().get(0).getNode().getBookingId());
+                    assertTrue(connection.getPageInfo().isHasNextPage());
+                    assertFalse(connection.getPageInfo().isHasPreviousPage());
+                    assertEquals(CursorCodec.encode(now, 8L), connection.getPageInfo().getEndCursor());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<BookingFilter> filter = ArgumentCaptor.forClass(BookingFilter.class);
+        verify(bookingPageRepository).findPage(filter.capture(), isNull(), isNull(), eq(3));
+        assertEquals("PENDING", filter.getValue().getStatus());
+        assertEquals(LocalDate.of(2025, 1, 1), filter.getValue().getFromDate());
+        assertEquals("Goa", filter.getValue().getDestination());
+        assertNull(filter.getValue().getUserId());
+    }
+
+    @Test
+    void testGetBookingsPageAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 11, 7, 10, 0);
+        when(bookingPageRepository.findPage(any(BookingFilter.class), eq(createdAt), eq(8L), eq(21)))
+                .thenReturn(Flux.just(booking(5L, createdAt.minusDays(1))));
+
+        StepVerifier.create(bookingService.getBookingsPage(null, CursorCodec.encode(createdAt, 8L), null, null, null, null))
+                .assertNext(connection -> {
+                    assertEquals(1, connection.getEdges().size());
+                    assertFalse(connection.getPageInfo().isHasNextPage());
+                    assertTrue(connection.getPageInfo().isHasPreviousPage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetBookingsPageInvalidInput() {
+        StepVerifier.create(bookingService.getBookingsPage(10, CursorCodec.encode("yesterday", 8L), null, null, null, null))
+                .expectError(InvalidCursorException.class)
+                .verify();
+
+        StepVerifier.create(bookingService.getBookingsPage(10, null, null, "2025-12-31", "2025-01-01", null))
+                .expectError(InvalidFilterException.class)
+                .verify();
+
+        verify(bookingPageRepository, never()).findPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetBookingsPageForUserFiltersByUserId() {
+        User user = new User();
+        user.setUserId(4L);
+        user.setEmail("test@gmail.com");
+        when(userRepository.findByEmail("test@gmail.com")).thenReturn(Mono.just(user));
+        when(bookingPageRepository.findPage(any(BookingFilter.class), isNull(), isNull(), eq(21))).thenReturn(Flux.empty());
+
+        StepVerifier.create(bookingService.getBookingsPageForUser("test@gmail.com", null, null, null, null, null, null))
+                .assertNext(connection -> {
+                    assertTrue(connection.getEdges().isEmpty());
+                    assertNull(connection.getPageInfo().getEndCursor());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<BookingFilter> filter = ArgumentCaptor.forClass(BookingFilter.class);
+        verify(bookingPageRepository).findPage(filter.capture(), isNull(), isNull(), eq(21));
+        assertEquals(4L, filter.getValue().getUserId());
+    }
 }
@@ -0,0 +1,145 @@
+package com.tourplanner.service;
+
+import com.tourplanner.dto.DashboardStats;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.Booking;
+import com.tourplanner.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/*
+    Rebuilds the dashboard counters from an in-memory H2 (MySQL mode), then checks that the
+    incremental updates land where the next reconciliation would put them.
+*/
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///dashboard?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "tourplanner.dashboard.days=7"
+})
+public class DashboardCountersTest {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createSchema() {
+        LocalDateTime today = LocalDateTime.now();
+        Flux.just(
+                "DROP TABLE IF EXISTS bookings",
+                "DROP TABLE IF EXISTS users",
+                "CREATE TABLE users (user_id BIGINT AUTO_INCREMENT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE, " +
+                        "password_hash VARCHAR(255), user_type VARCHAR(20), created_at TIMESTAMP)",
+                "CREATE TABLE bookings (booking_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, destination VARCHAR(100), " +
+                        "rate INT, booking_date DATE, number_of_people INT, created_at TIMESTAMP, status VARCHAR(50))",
+                "INSERT INTO users (user_id, email, password_hash, user_type) VALUES " +
+                        "(1, 'user@gmail.com', 'x', 'USER'), (2, 'other@gmail.com', 'x', 'USER'), (3, 'admin@gmail.com', 'x', 'ADMIN')",
+                "INSERT INTO bookings (user_id, destination, rate, number_of_people, created_at, status) VALUES " +
+                        "(1, 'Goa', 1000, 2, '" + today + "', 'PENDING'), " +
+                        "(1, 'Goa', 500, 1, '" + today.minusDays(1) + "', 'CANCELLED'), " +
+                        "(2, 'Mysore', 800, 3, '" + today.minusDays(30) + "', 'CONFIRMED')")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        dashboardCounters.reconcile().block();
+    }
+
+    @Test
+    void testStatsRebuiltFromTables() {
+        DashboardStats stats = dashboardCounters.stats(null);
+
+        assertEquals(2, stats.getTotalUsers());
+        assertEquals(1, stats.getTotalAdmins());
+        assertEquals(Map.of("PENDING", 1L, "CANCELLED", 1L, "CONFIRMED", 1L), byStatus(stats));
+        // The cancelled Goa booking earns nothing
+        assertEquals(Map.of("Goa", 2000L, "Mysore", 2400L), revenue(stats));
+        // Seven days ending today, the 30 day old booking is outside them
+        assertEquals(7, stats.getBookingsPerDay().size());
+        assertEquals(LocalDate.now(), stats.getBookingsPerDay().get(6).getDate());
+        assertEquals(1, stats.getBookingsPerDay().get(6).getCount());
+        assertEquals(1, stats.getBookingsPerDay().get(5).getCount());
+        assertNotNull(stats.getReconciledAt());
+
+        assertEquals(3, dashboardCounters.stats(3).getBookingsPerDay().size());
+        assertEquals(7, dashboardCounters.stats(365).getBookingsPerDay().size());
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchReconciliation() {
+        double correctionsBefore = meterRegistry.counter("dashboard.reconcile.corrections").count();
+
+        User user = new User();
+        user.setUserId(4L);
+        dashboardCounters.userRegistered(user);
+
+        Booking booking = new Booking();
+        booking.setUserId(4L);
+        booking.setDestination("Udupi");
+        booking.setRate(300);
+        booking.setNumberOfPeople(4);
+        dashboardCounters.bookingCreated(booking);
+
+        booking.setStatus("CANCELLED");
+        dashboardCounters.bookingStatusChanged(booking, "PENDING");
+
+        Booking deleted = new Booking();
+        deleted.setDestination("Mysore");
+        deleted.setRate(800);
+        deleted.setNumberOfPeople(3);
+        deleted.setStatus("CONFIRMED");
+        deleted.setCreatedAt(LocalDateTime.now().minusDays(30));
+        User other = new User();
+        other.setUserId(2L);
+        dashboardCounters.userDeleted(other, List.of(deleted));
+
+        DashboardStats stats = dashboardCounters.stats(7);
+        assertEquals(2, stats.getTotalUsers());
+        assertEquals(Map.of("PENDING", 1L, "CANCELLED", 2L), byStatus(stats));
+        assertEquals(Map.of("Goa", 2000L), revenue(stats));
+        assertEquals(2, stats.getBookingsPerDay().get(6).getCount());
+
+        // The same changes in the database: the reconciliation finds nothing to correct
+        Flux.just(
+                "INSERT INTO users (user_id, email, password_hash, user_type) VALUES (4, 'new@gmail.com', 'x', 'USER')",
+                "INSERT INTO bookings (user_id, destination, rate, number_of_people, created_at, status) VALUES " +
+                        "(4, 'Udupi', 300, 4, '" + booking.getCreatedAt() + "', 'CANCELLED')",
+                "DELETE FROM bookings WHERE user_id = 2",
+                "DELETE FROM users WHERE user_id = 2")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+
+        StepVerifier.create(dashboardCounters.reconcile()).verifyComplete();
+        assertEquals(correctionsBefore, meterRegistry.counter("dashboard.reconcile.corrections").count());
+        assertEquals(2, dashboardCounters.stats(7).getTotalUsers());
+    }
+
+    private static Map<String, Long> byStatus(DashboardStats stats) {
+        return stats.getBookingsByStatus().stream()
+                .collect(Collectors.toMap(DashboardStats.StatusCount::getStatus, DashboardStats.StatusCount::getCount));
+    }
+
+    private static Map<String, Long> revenue(DashboardStats stats) {
+        return stats.getRevenueByDestination().stream()
+                .collect(Collectors.toMap(DashboardStats.DestinationRevenue::getDestination, DashboardStats.DestinationRevenue::getRevenue));
+    }
+}
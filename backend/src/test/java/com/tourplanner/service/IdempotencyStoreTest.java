@@ -0,0 +1,125 @@
+package com.tourplanner.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourplanner.dto.BookingDTO;
+import com.tourplanner.exception.IdempotencyKeyException;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+    Runs against H2 (MySQL mode) so the persisted layer is exercised too.
+*/
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///idempotency?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "tourplanner.migration.enabled=true"
+})
+public class IdempotencyStoreTest {
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private static BookingDTO request(int people) {
+        return new BookingDTO("Goa", 18000, LocalDate.parse("2025-12-20"), people);
+    }
+
+    private Mono<BookingDTO> createBooking(BookingDTO bookingDTO) {
+        return Mono.delay(Duration.ofMillis(50))
+                .map(tick -> {
+                    executions.incrementAndGet();
+                    return bookingDTO;
+                });
+    }
+
+    private Mono<BookingDTO> execute(IdempotencyStore store, String key, BookingDTO bookingDTO) {
+        return store.execute("createBooking:a@gmail.com", key, bookingDTO, BookingDTO.class, () -> createBooking(bookingDTO));
+    }
+
+    @Test
+    void testConcurrentDuplicatesRunOnce() {
+        String key = UUID.randomUUID().toString();
+
+        StepVerifier.create(Flux.range(0, 20).flatMap(i -> execute(idempotencyStore, key, request(2))))
+                .expectNextCount(20)
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testRetryOnAnotherNodeReplaysStoredResult() {
+        String key = UUID.randomUUID().toString();
+        execute(idempotencyStore, key, request(3)).block();
+
+        // Fresh in-memory layer, as after a restart or on another node
+        IdempotencyStore otherNode = new IdempotencyStore(idempotencyKeyRepository, objectMapper, new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        StepVerifier.create(execute(otherNode, key, request(3)))
+                .expectNextMatches(dto -> dto.getNumberOfPeople() == 3 && dto.getBookingDate().equals(LocalDate.parse("2025-12-20")))
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testSameKeyWithDifferentRequestIsRefused() {
+        String key = UUID.randomUUID().toString();
+        execute(idempotencyStore, key, request(2)).block();
+
+        StepVerifier.create(execute(idempotencyStore, key, request(5)))
+                .expectError(IdempotencyKeyException.class)
+                .verify();
+    }
+
+    @Test
+    void testFailureIsNotRemembered() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<BookingDTO> failingOnce = idempotencyStore.execute("createBooking:a@gmail.com", key, request(1), BookingDTO.class,
+                () -> attempts.incrementAndGet() == 1 ? Mono.error(new IllegalStateException("db down")) : Mono.just(request(1)));
+
+        StepVerifier.create(failingOnce).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(failingOnce).expectNextCount(1).verifyComplete();
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testExpiredKeysArePurged() {
+        String key = UUID.randomUUID().toString();
+        execute(idempotencyStore, key, request(1)).block();
+        databaseClient.sql("UPDATE idempotency_keys SET expires_at = :past WHERE idempotency_key = :key")
+                .bind("past", LocalDate.parse("2020-01-01").atStartOfDay())
+                .bind("key", key)
+                .then().block();
+
+        StepVerifier.create(idempotencyStore.purgeExpired())
+                .expectNextMatches(purged -> purged >= 1)
+                .verifyComplete();
+    }
+}
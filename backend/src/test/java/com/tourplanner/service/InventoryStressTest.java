@@ -0,0 +1,150 @@
+package com.tourplanner.service;
+
+import com.tourplanner.dto.BookingDTO;
+import com.tourplanner.exception.SoldOutException;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.Booking;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+    Thousands of createBooking calls race for the seats of two dates on a real (H2, MySQL mode)
+    database. Whatever the interleaving, the booked seats must match what the inventory gave out
+    and never exceed the capacity. Admins racing to cancel or reopen the same booking must move
+    its seats only once.
+*/
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///inventory?options=MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "tourplanner.migration.enabled=true"
+})
+@Slf4j
+public class InventoryStressTest {
+    private static final String EMAIL = "stress@gmail.com";
+    private static final LocalDate DATE = LocalDate.parse("2025-12-20");
+    private static final int REQUESTS = 2000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    private Integer integer(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, Integer.class)).one().block();
+    }
+
+    @Test
+    void testParallelBookingsNeverOversell() {
+        databaseClient.sql("INSERT INTO users (email, password_hash) VALUES ('" + EMAIL + "', 'x')").then().block();
+        inventoryService.setCapacity("Goa", DATE, 700).block();
+        inventoryService.setCapacity("Manali", DATE, 300).block();
+        List<String> destinations = List.of("Goa", "Manali");
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        long start = System.nanoTime();
+
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> {
+                    BookingDTO bookingDTO = new BookingDTO();
+                    bookingDTO.setDestination(destinations.get(i % 2));
+                    bookingDTO.setRate(18000);
+                    bookingDTO.setBookingDate(DATE);
+                    bookingDTO.setNumberOfPeople(ThreadLocalRandom.current().nextInt(1, 5));
+                    return bookingService.createBooking(bookingDTO, EMAIL)
+                            .doOnNext(saved -> booked.incrementAndGet())
+                            .onErrorResume(SoldOutException.class, err -> {
+                                soldOut.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, 32)
+                .blockLast();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Inventory stress: {} requests, {} booked, {} sold out in {}s ({} ops/s)",
+                REQUESTS, booked.get(), soldOut.get(), String.format("%.2f", seconds), String.format("%.0f", REQUESTS / seconds));
+
+        assertEquals(REQUESTS, booked.get() + soldOut.get());
+        assertEquals(booked.get(), integer("SELECT CAST(COUNT(*) AS INT) FROM bookings WHERE destination IN ('Goa', 'Manali')"));
+        for (String destination : destinations) {
+            int capacity = integer("SELECT capacity FROM destination_capacity WHERE destination = '" + destination + "'");
+            int remaining = integer("SELECT remaining FROM destination_capacity WHERE destination = '" + destination + "'");
+            int seats = integer("SELECT CAST(COALESCE(SUM(number_of_people), 0) AS INT) FROM bookings WHERE destination = '" + destination + "'");
+
+            assertTrue(remaining >= 0, destination + " oversold");
+            assertEquals(capacity - remaining, seats, destination + " seats booked vs seats handed out");
+        }
+    }
+
+    @Test
+    void testConcurrentStatusChangesMoveSeatsOnce() {
+        String email = "admins@gmail.com";
+        databaseClient.sql("INSERT INTO users (email, password_hash) VALUES ('" + email + "', 'x')").then().block();
+        inventoryService.setCapacity("Coorg", DATE, 10).block();
+
+        bookingService.createBooking(new BookingDTO("Coorg", 9000, DATE, 4), email).block();
+        bookingService.createBooking(new BookingDTO("Coorg", 9000, DATE, 3), email).block();
+        Long bookingId = databaseClient.sql("SELECT booking_id FROM bookings WHERE destination = 'Coorg' AND number_of_people = 4")
+                .map(row -> row.get(0, Long.class)).one().block();
+        assertEquals(3, remaining("Coorg"));
+
+        // The first change to reach the seats waits here, holding the booking row, while every
+        // other one reads the booking in its old status
+        Mono<Void> holdSeats = databaseClient.sql("SELECT remaining FROM destination_capacity WHERE destination = 'Coorg' FOR UPDATE")
+                .fetch().all()
+                .then(Mono.delay(Duration.ofSeconds(2)))
+                .then()
+                .as(transactionalOperator::transactional);
+
+        // Released twice the 4 seats would come back as 11, capped at 10
+        race(holdSeats, "CANCELLED", bookingId);
+        assertEquals(7, remaining("Coorg"));
+
+        // Taken twice the second reservation would find only 3 seats left and fail as sold out
+        race(holdSeats, "CONFIRMED", bookingId);
+        assertEquals(3, remaining("Coorg"));
+        assertEquals(7, integer("SELECT CAST(SUM(number_of_people) AS INT) FROM bookings " +
+                "WHERE destination = 'Coorg' AND status <> 'CANCELLED'"));
+    }
+
+    // r2dbc-h2 runs statements on the calling thread, so each call gets its own thread to really overlap
+    private void race(Mono<Void> holdSeats, String status, Long bookingId) {
+        Flux<Booking> changes = Flux.range(0, 20)
+                .flatMap(i -> adminService.updateUserBooking(bookingId, status).subscribeOn(Schedulers.boundedElastic()), 20);
+        Flux.merge(holdSeats.subscribeOn(Schedulers.boundedElastic()).then(Mono.<Booking>empty()),
+                        changes.delaySubscription(Duration.ofMillis(200)))
+                .blockLast(Duration.ofSeconds(60));
+    }
+
+    private int remaining(String destination) {
+        return integer("SELECT remaining FROM destination_capacity WHERE destination = '" + destination + "'");
+    }
+}
@@ -0,0 +1,98 @@
+package com.tourplanner.service;
+
+import com.tourplanner.main.MainApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+    Runs the cascading delete and the orphan purge against an in-memory H2 (MySQL mode),
+    the tables have no foreign keys so orphans can exist like they do in older databases.
+    Both must give the seats of the bookings they remove back to destination_capacity.
+*/
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///compaction?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "tourplanner.compaction.batch-size=2",
+        "tourplanner.compaction.pause-between-batches=0ms"
+})
+public class OrphanCompactionJobTest {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private OrphanCompactionJob orphanCompactionJob;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void createSchema() {
+        Flux.just(
+                "DROP TABLE IF EXISTS bookings",
+                "DROP TABLE IF EXISTS destination_capacity",
+                "DROP TABLE IF EXISTS profiles",
+                "DROP TABLE IF EXISTS users",
+                "CREATE TABLE users (user_id BIGINT AUTO_INCREMENT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE, " +
+                        "password_hash VARCHAR(255), user_type VARCHAR(20), created_at TIMESTAMP)",
+                "CREATE TABLE profiles (profile_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, first_name VARCHAR(100), " +
+                        "last_name VARCHAR(100), aadhar_number VARCHAR(20), city VARCHAR(100), phone_number VARCHAR(20))",
+                "CREATE TABLE bookings (booking_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, destination VARCHAR(100), " +
+                        "rate INT, booking_date DATE, number_of_people INT, created_at TIMESTAMP, status VARCHAR(50))",
+                "CREATE TABLE destination_capacity (destination VARCHAR(100) NOT NULL, travel_date DATE NOT NULL, " +
+                        "capacity INT NOT NULL, remaining INT NOT NULL, PRIMARY KEY (destination, travel_date))",
+                // 6 of the 10 seats are booked: 4 by user 1, 2 by an orphan booking of user 98
+                "INSERT INTO destination_capacity VALUES ('Goa', '2025-12-20', 10, 4)",
+                "INSERT INTO users (user_id, email, password_hash, user_type) VALUES " +
+                        "(1, 'user@gmail.com', 'x', 'USER'), (2, 'keep@gmail.com', 'x', 'USER')",
+                "INSERT INTO profiles (user_id, first_name) VALUES (1, 'Ashish'), (2, 'Keep'), (98, 'Gone'), (99, 'Gone')",
+                "INSERT INTO bookings (user_id, destination, booking_date, number_of_people, status) VALUES " +
+                        "(1, 'Goa', '2025-12-20', 4, 'CONFIRMED'), (1, 'Goa', '2025-12-20', 3, 'CANCELLED'), (2, 'Udupi', NULL, NULL, NULL), " +
+                        "(98, 'Goa', '2025-12-20', 2, 'PENDING'), (98, 'Goa', NULL, NULL, NULL), " +
+                        "(99, 'Goa', NULL, NULL, NULL), (99, 'Goa', NULL, NULL, NULL), (99, 'Goa', NULL, NULL, NULL)")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        userCache.invalidateAll();
+    }
+
+    private long count(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, Long.class)).one().block();
+    }
+
+    @Test
+    void testDeleteUserRemovesBookingsAndProfile() {
+        StepVerifier.create(adminService.deleteUserById(1L))
+                .expectNext("User and related data deleted successfully for ID: 1")
+                .verifyComplete();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM users WHERE user_id = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM bookings WHERE user_id = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM profiles WHERE user_id = 1"));
+        assertEquals(1, count("SELECT COUNT(*) FROM bookings WHERE user_id = 2"));
+        // The confirmed booking's 4 seats are back, the cancelled one had already returned its 3
+        assertEquals(8, count("SELECT CAST(remaining AS BIGINT) FROM destination_capacity"));
+    }
+
+    @Test
+    void testPurgeOrphansInBatches() {
+        // 5 orphan bookings and 2 orphan profiles, purged two rows at a time
+        StepVerifier.create(orphanCompactionJob.purgeOrphans())
+                .expectNext(7L)
+                .verifyComplete();
+
+        assertEquals(3, count("SELECT COUNT(*) FROM bookings"));
+        assertEquals(2, count("SELECT COUNT(*) FROM profiles"));
+        assertEquals(6, count("SELECT CAST(remaining AS BIGINT) FROM destination_capacity"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.tourplanner.service;
+
+import com.tourplanner.dto.PopularDestination;
+import com.tourplanner.main.MainApplication;
+import com.tourplanner.model.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+    Rebuilds the ranking from an in-memory H2 (MySQL mode), then feeds it booking changes.
+*/
+
+@SpringBootTest(classes = MainApplication.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///popularity?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "tourplanner.popularity.days=10"
+})
+public class PopularDestinationsTest {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private PopularDestinations popularDestinations;
+
+    @BeforeEach
+    void createSchema() {
+        LocalDateTime now = LocalDateTime.now();
+        Flux.just(
+                "DROP TABLE IF EXISTS bookings",
+                "CREATE TABLE bookings (booking_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, destination VARCHAR(100), " +
+                        "rate INT, booking_date DATE, number_of_people INT, created_at TIMESTAMP, status VARCHAR(50))",
+                "INSERT INTO bookings (user_id, destination, number_of_people, created_at, status) VALUES " +
+                        "(1, 'Goa', 2, '" + now + "', 'PENDING'), " +
+                        "(1, 'Ooty', 3, '" + now + "', 'CONFIRMED'), " +
+                        "(2, 'Goa', 4, '" + now.minusDays(3) + "', 'PENDING'), " +
+                        "(2, 'Mysore', 9, '" + now.minusDays(1) + "', 'CANCELLED'), " +
+                        "(3, 'Mysore', 20, '" + now.minusDays(20) + "', 'PENDING')")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        StepVerifier.create(popularDestinations.rebuild()).verifyComplete();
+    }
+
+    private static List<String> names(List<PopularDestination> ranking) {
+        return ranking.stream().map(PopularDestination::getDestination).toList();
+    }
+
+    @Test
+    void testRebuiltFromBookings() {
+        // Cancelled and older than the 10 days kept are left out
+        List<PopularDestination> week = popularDestinations.top(7, 5);
+        assertEquals(List.of("Goa", "Ooty"), names(week));
+        assertEquals(6, week.get(0).getTravellers());
+        assertEquals(0, week.get(0).getMaxOverestimate());
+
+        assertEquals(List.of("Ooty", "Goa"), names(popularDestinations.top(1, 5)));
+        assertEquals(List.of("Goa"), names(popularDestinations.top(7, 1)));
+    }
+
+    @Test
+    void testFollowsBookingChanges() {
+        Booking booking = new Booking();
+        booking.setDestination("Mysore");
+        booking.setNumberOfPeople(5);
+        popularDestinations.bookingCreated(booking);
+        assertEquals(List.of("Goa", "Mysore", "Ooty"), names(popularDestinations.top(7, 5)));
+
+        booking.setStatus("CANCELLED");
+        popularDestinations.bookingStatusChanged(booking, "PENDING");
+        assertEquals(List.of("Goa", "Ooty"), names(popularDestinations.top(7, 5)));
+
+        Booking cancelledEarlier = new Booking();
+        cancelledEarlier.setDestination("Mysore");
+        cancelledEarlier.setNumberOfPeople(9);
+        cancelledEarlier.setCreatedAt(LocalDateTime.now().minusDays(1));
+        cancelledEarlier.setStatus("CONFIRMED");
+        popularDestinations.bookingStatusChanged(cancelledEarlier, "CANCELLED");
+        assertEquals(List.of("Mysore", "Goa", "Ooty"), names(popularDestinations.top(7, 5)));
+
+        Booking goa = new Booking();
+        goa.setDestination("Goa");
+        goa.setNumberOfPeople(2);
+        popularDestinations.bookingsDeleted(List.of(goa));
+        assertEquals(4, popularDestinations.top(7, 5).get(1).getTravellers());
+    }
+}
@@ -0,0 +1,110 @@
+package com.tourplanner.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private Mono<String> query(Sinks.One<String> result) {
+        return singleFlight.execute("profiles.by-email", "a@gmail.com", () -> {
+            queries.incrementAndGet();
+            return result.asMono();
+        });
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("singleflight.requests", "method", "profiles.by-email", "result", result).count();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneQuery() {
+        Sinks.One<String> result = Sinks.one();
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            query(result).subscribe(received::add);
+        }
+        assertEquals(1, singleFlight.inFlightCount());
+
+        result.tryEmitValue("profile");
+
+        assertEquals(List.of("profile", "profile", "profile", "profile", "profile"), received);
+        assertEquals(1, queries.get());
+        assertEquals(1, count("executed"));
+        assertEquals(4, count("coalesced"));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testCancelledCallerDoesNotCancelTheOthers() {
+        Sinks.One<String> result = Sinks.one();
+        Disposable first = query(result).subscribe();
+        List<String> received = new ArrayList<>();
+        query(result).subscribe(received::add);
+
+        first.dispose();
+        result.tryEmitValue("profile");
+
+        assertEquals(List.of("profile"), received);
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void testQueryCancelledWhenEveryCallerLeft() {
+        Sinks.One<String> abandoned = Sinks.one();
+        Disposable first = query(abandoned).subscribe();
+        Disposable second = query(abandoned).subscribe();
+
+        first.dispose();
+        second.dispose();
+
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(0, abandoned.currentSubscriberCount());
+
+        Sinks.One<String> result = Sinks.one();
+        List<String> received = new ArrayList<>();
+        query(result).subscribe(received::add);
+        result.tryEmitValue("profile");
+
+        assertEquals(List.of("profile"), received);
+        assertEquals(2, queries.get());
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void testCompletedQueryIsNotReused() {
+        StepVerifier.create(singleFlight.execute("bookings.by-id", 1L, () -> Mono.just(queries.incrementAndGet())))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(singleFlight.execute("bookings.by-id", 1L, () -> Mono.just(queries.incrementAndGet())))
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void testErrorIsSharedThenCleared() {
+        Sinks.One<String> result = Sinks.one();
+        List<Throwable> errors = new ArrayList<>();
+        query(result).subscribe(value -> { }, errors::add);
+        query(result).subscribe(value -> { }, errors::add);
+
+        result.tryEmitError(new IllegalStateException("db down"));
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().allMatch(IllegalStateException.class::isInstance));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+}
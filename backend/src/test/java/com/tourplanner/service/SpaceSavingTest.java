@@ -0,0 +1,62 @@
+package com.tourplanner.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpaceSavingTest {
+
+    private static Map<String, long[]> entries(SpaceSaving summary) {
+        Map<String, long[]> entries = new HashMap<>();
+        summary.forEach((key, count, error) -> entries.put(key, new long[]{count, error}));
+        return entries;
+    }
+
+    @Test
+    void testExactWhileKeysFit() {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add("Goa", 4);
+        summary.add("Ooty", 2);
+        summary.add("Goa", 1);
+        summary.remove("Ooty", 1);
+
+        Map<String, long[]> entries = entries(summary);
+        assertEquals(5, entries.get("Goa")[0]);
+        assertEquals(1, entries.get("Ooty")[0]);
+        assertEquals(0, entries.get("Goa")[1]);
+    }
+
+    @Test
+    void testHeavyKeysSurviveALongTail() {
+        SpaceSaving summary = new SpaceSaving(10);
+        // 1000 travellers to Goa and 500 to Mysore among 2000 destinations seen once each
+        for (int i = 0; i < 2000; i++) {
+            summary.add("tail-" + i, 1);
+            if (i % 2 == 0) summary.add("Goa", 1);
+            if (i % 4 == 0) summary.add("Mysore", 1);
+        }
+
+        Map<String, long[]> entries = entries(summary);
+        assertEquals(10, summary.size());
+        long[] goa = entries.get("Goa");
+        long[] mysore = entries.get("Mysore");
+        // The true count lies in [count - error, count]
+        assertTrue(goa[0] >= 1000 && goa[0] - goa[1] <= 1000);
+        assertTrue(mysore[0] >= 500 && mysore[0] - mysore[1] <= 500);
+    }
+
+    @Test
+    void testRemoveNeverGoesBelowTheError() {
+        SpaceSaving summary = new SpaceSaving(1);
+        summary.add("Goa", 5);
+        summary.add("Ooty", 1);
+        summary.remove("Ooty", 3);
+
+        assertEquals(5, entries(summary).get("Ooty")[0]);
+        assertEquals(5, entries(summary).get("Ooty")[1]);
+    }
+}
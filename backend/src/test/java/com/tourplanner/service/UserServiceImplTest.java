@@ -1,5 +1,6 @@
 package com.tourplanner.service;
 
+import com.tourplanner.dto.AdminProfileDTO;
 import com.tourplanner.dto.UpdateCurrentProfileInputDTO;
 import com.tourplanner.dto.UserProfileDTO;
 import com.tourplanner.dto.UserRegisterDTO;
@@ -10,18 +11,24 @@ import com.tourplanner.model.Profile;
 import com.tourplanner.model.User;
 import com.tourplanner.repository.BookingRepository;
 import com.tourplanner.repository.ProfileRepository;
+import com.tourplanner.repository.UserProfileReadRepository;
 import com.tourplanner.repository.UserRepository;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,9 +43,25 @@ public class UserServiceImplTest {
     @MockitoBean
     private BookingRepository bookingRepository;
 
+    @MockitoBean
+    private UserProfileReadRepository userProfileReadRepository;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserCache userCache;
+
+    @MockitoBean
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void clearUserCache() {
+        userCache.invalidateAll();
+        // No database in these tests, the transaction boundary just passes the work through
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
     @Test
     void testRegisterUserSuccess() {
         UserRegisterDTO dto = new UserRegisterDTO();
@@ -112,8 +135,9 @@ public class UserServiceImplTest {
         profile.setPhoneNumber("9876543210");
         profile.setCity("Mangalore");
 
-        when(userRepository.findByEmail("test@gmail.com")).thenReturn(Mono.just(user));
-        when(profileRepository.findByUserId(1L)).thenReturn(Mono.just(profile));
+        when(userProfileReadRepository.findAdminProfileByEmail("test@gmail.com")).thenReturn(Mono.just(new AdminProfileDTO(
+                user.getUserId(), user.getEmail(), "USER", null, profile.getFirstName(), profile.getLastName(),
+                profile.getAadharNumber(), profile.getCity(), profile.getPhoneNumber())));
 
         Mono<UserProfileDTO> result = userService.getCurrentUserProfile("test@gmail.com");
 
@@ -126,13 +150,14 @@ public class UserServiceImplTest {
                     Assertions.assertEquals("Mangalore", dto.getCity());
                 }).verifyComplete();
 
-        verify(userRepository).findByEmail("test@gmail.com");
-        verify(profileRepository).findByUserId(1L);
+        verify(userProfileReadRepository).findAdminProfileByEmail("test@gmail.com");
+        verify(userRepository, never()).findByEmail(any());
+        verify(profileRepository, never()).findByUserId(any());
     }
 
     @Test
     void testGetCurrentUserProfileFail() {
-        when(userRepository.findByEmail("test@gmail.com")).thenReturn(Mono.empty());
+        when(userProfileReadRepository.findAdminProfileByEmail("test@gmail.com")).thenReturn(Mono.empty());
 
         Mono<UserProfileDTO> result = userService.getCurrentUserProfile("test@gmail.com");
 
@@ -141,7 +166,63 @@ public class UserServiceImplTest {
                     throwable instanceof RuntimeException && throwable.getMessage().equals("User not found with email: test@gmail.com")
                 ).verify();
 
-        verify(userRepository).findByEmail("test@gmail.com");
+        verify(userProfileReadRepository).findAdminProfileByEmail("test@gmail.com");
+    }
+
+    @Test
+    void testGetCurrentUserProfileServedFromCache() {
+        when(userProfileReadRepository.findAdminProfileByEmail("test@gmail.com")).thenReturn(Mono.just(new AdminProfileDTO(
+                1L, "test@gmail.com", "USER", null, "test", "test", "123456789034", "Mangalore", "9876543210")));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(userService.getCurrentUserProfile("test@gmail.com"))
+                    .assertNext(dto -> Assertions.assertEquals("Mangalore", dto.getCity()))
+                    .verifyComplete();
+        }
+
+        verify(userProfileReadRepository, times(1)).findAdminProfileByEmail("test@gmail.com");
+    }
+
+    @Test
+    void testUnknownEmailCachedAsMissing() {
+        when(userRepository.findByEmail("unknown@gmail.com")).thenReturn(Mono.empty());
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(userService.getAllBookingForAUser("unknown@gmail.com"))
+                    .expectError(UserNotFoundException.class)
+                    .verify();
+        }
+
+        verify(userRepository, times(1)).findByEmail("unknown@gmail.com");
+    }
+
+    @Test
+    void testUpdateCurrentUserProfileEvictsCache() {
+        User user = new User();
+        user.setUserId(1L);
+        user.setEmail("test@gmail.com");
+
+        Profile profile = new Profile();
+        profile.setUserId(1L);
+        profile.setCity("Mumbai");
+
+        when(userProfileReadRepository.findAdminProfileByEmail("test@gmail.com"))
+                .thenReturn(Mono.just(new AdminProfileDTO(1L, "test@gmail.com", "USER", null, null, null, null, "Mumbai", null)))
+                .thenReturn(Mono.just(new AdminProfileDTO(1L, "test@gmail.com", "USER", null, null, null, null, "Mangalore", null)));
+        when(userRepository.findByEmail("test@gmail.com")).thenReturn(Mono.just(user));
+        when(profileRepository.findByUserId(1L)).thenReturn(Mono.just(profile));
+        when(profileRepository.save(any(Profile.class))).thenReturn(Mono.just(profile));
+
+        UpdateCurrentProfileInputDTO inputDTO = new UpdateCurrentProfileInputDTO();
+        inputDTO.setCity("Mangalore");
+
+        StepVerifier.create(userService.getCurrentUserProfile("test@gmail.com")
+                        .then(userService.updateCurrentUserProfile("test@gmail.com", inputDTO))
+                        .then(userService.getCurrentUserProfile("test@gmail.com")))
+                .assertNext(dto -> Assertions.assertEquals("Mangalore", dto.getCity()))
+                .verifyComplete();
+
+        verify(userProfileReadRepository, times(2)).findAdminProfileByEmail("test@gmail.com");
     }
 
     @Test
@@ -200,6 +281,9 @@ public class UserServiceImplTest {
 
         when(userRepository.findByEmail("test@gmail.com")).thenReturn(Mono.just(user));
         when(userRepository.delete(user)).thenReturn(Mono.empty());
+        when(bookingRepository.findByUserId(1L)).thenReturn(Flux.empty());
+        when(bookingRepository.deleteByUserId(1L)).thenReturn(Mono.just(2L));
+        when(profileRepository.deleteByUserId(1L)).thenReturn(Mono.just(1L));
 
         Mono<String> result = userService.deleteUserByEmail("test@gmail.com");
 
@@ -209,6 +293,9 @@ public class UserServiceImplTest {
 
         verify(userRepository).findByEmail("test@gmail.com");
         verify(userRepository).delete(user);
+        verify(bookingRepository).deleteByUserId(1L);
+        verify(profileRepository).deleteByUserId(1L);
+        verify(transactionalOperator).transactional(ArgumentMatchers.<Mono<Object>>any());
     }
 
     @Test
@@ -0,0 +1,146 @@
+package com.tourplanner.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+    Compares two JMH JSON result files (-rf json) and prints a Markdown table for the review:
+
+        java -cp benchmarks/target/benchmarks.jar com.tourplanner.benchmarks.BenchmarkReport \
+            baseline.json current.json [threshold-percent, default 10]
+
+    A benchmark regresses when its score got worse by more than the threshold (lower for
+    throughput, higher for the time modes) and the error intervals of the two runs don't
+    overlap, so noise within the error bars isn't reported. The allocation per operation
+    (gc.alloc.rate.norm, only there with -prof gc) is compared the same way.
+    Exits with 1 when something regressed, so a CI step can fail on it.
+*/
+
+public class BenchmarkReport {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    record Score(double value, double error, String unit) {
+    }
+
+    record Result(String mode, Score primary, Score allocation) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkReport <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        List<String> lines = new ArrayList<>();
+        lines.add("| Benchmark | Unit | Baseline | Current | Change (+ is better) | |");
+        lines.add("|---|---|---:|---:|---:|---|");
+        int regressions = 0;
+
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                lines.add(row(entry.getKey(), now.primary(), null, false, "new"));
+                continue;
+            }
+
+            boolean higherIsBetter = "thrpt".equals(now.mode());
+            String verdict = verdict(before.primary(), now.primary(), higherIsBetter, threshold);
+            if ("REGRESSION".equals(verdict)) regressions++;
+            lines.add(row(entry.getKey(), now.primary(), before.primary(), higherIsBetter, verdict));
+
+            if (before.allocation() != null && now.allocation() != null) {
+                String allocationVerdict = verdict(before.allocation(), now.allocation(), false, threshold);
+                if ("REGRESSION".equals(allocationVerdict)) regressions++;
+                lines.add(row(entry.getKey() + " (alloc)", now.allocation(), before.allocation(), false, allocationVerdict));
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                lines.add("| " + key + " | | | | | removed |");
+            }
+        }
+
+        lines.forEach(System.out::println);
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%d regression(s) beyond %.0f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static String verdict(Score before, Score now, boolean higherIsBetter, double threshold) {
+        double change = relativeChange(before, now, higherIsBetter);
+        boolean outsideNoise = Math.abs(now.value() - before.value()) > errorOf(before) + errorOf(now);
+        if (!outsideNoise || Math.abs(change) <= threshold) return "";
+        return change < 0 ? "REGRESSION" : "improved";
+    }
+
+    private static double errorOf(Score score) {
+        return Double.isNaN(score.error()) ? 0 : score.error();
+    }
+
+    // Positive when now is better than before, in percent
+    private static double relativeChange(Score before, Score now, boolean higherIsBetter) {
+        if (before.value() == 0) return 0;
+        double change = (now.value() - before.value()) / before.value() * 100;
+        return (higherIsBetter ? change : -change) + 0.0;
+    }
+
+    private static String row(String name, Score now, Score before, boolean higherIsBetter, String verdict) {
+        String change = before == null ? "" : String.format(Locale.ROOT, "%+.1f%%", relativeChange(before, now, higherIsBetter));
+        return String.format(Locale.ROOT, "| %s | %s | %s | %s | %s | %s |",
+                name, now.unit(), before == null ? "" : format(before), format(now), change, verdict);
+    }
+
+    private static String format(Score score) {
+        return Double.isNaN(score.error())
+                ? String.format(Locale.ROOT, "%.3f", score.value())
+                : String.format(Locale.ROOT, "%.3f ± %.3f", score.value(), score.error());
+    }
+
+    // Keyed by benchmark name plus its parameters, e.g. "PasswordEncoderBenchmark.encode strength=10"
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(shortName(run.path("benchmark").asText()));
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            results.put(key.toString(), new Result(
+                    run.path("mode").asText(),
+                    score(run.path("primaryMetric")),
+                    allocation.isMissingNode() ? null : score(allocation)));
+        }
+        return results;
+    }
+
+    private static Score score(JsonNode metric) {
+        // scoreError is "NaN" for runs with a single measurement
+        JsonNode error = metric.path("scoreError");
+        return new Score(metric.path("score").asDouble(),
+                error.isNumber() ? error.asDouble() : Double.NaN,
+                metric.path("scoreUnit").asText());
+    }
+
+    private static String shortName(String benchmark) {
+        int method = benchmark.lastIndexOf('.');
+        int type = benchmark.lastIndexOf('.', method - 1);
+        return benchmark.substring(type + 1);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tourplanner.benchmarks;
+
+import com.tourplanner.exception.GlobalExceptionHandler;
+import com.tourplanner.exception.IdempotencyKeyException;
+import com.tourplanner.exception.QueryTooComplexException;
+import com.tourplanner.exception.UserNotFoundException;
+import graphql.GraphQLError;
+import graphql.Scalars;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.MergedField;
+import graphql.execution.ResultPath;
+import graphql.language.Field;
+import graphql.language.SourceLocation;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    GlobalExceptionHandler turning a data fetcher exception into the GraphQL error the client
+    sees, including the graphql.errors counter (SimpleMeterRegistry).
+
+    notFound matches the second branch, badRequest the third (the longest instanceof list),
+    unexpected falls through every branch. requestError is the query cost rejection, which
+    has no DataFetchingEnvironment. The exceptions are created once, their stack traces
+    are not part of the measurement.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class ExceptionHandlerBenchmark {
+    private GlobalExceptionHandler handler;
+    private DataFetchingEnvironment env;
+    private Exception notFound;
+    private Exception badRequest;
+    private Exception unexpected;
+    private Exception tooComplex;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        handler = new GlobalExceptionHandler();
+        java.lang.reflect.Field meterRegistry = GlobalExceptionHandler.class.getDeclaredField("meterRegistry");
+        meterRegistry.setAccessible(true);
+        meterRegistry.set(handler, (MeterRegistry) new SimpleMeterRegistry());
+
+        Field field = Field.newField("getUserById").sourceLocation(new SourceLocation(2, 3)).build();
+        env = DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .mergedField(MergedField.newMergedField(field).build())
+                .executionStepInfo(ExecutionStepInfo.newExecutionStepInfo()
+                        .type(Scalars.GraphQLString)
+                        .path(ResultPath.rootPath().segment("getUserById"))
+                        .build())
+                .build();
+
+        notFound = new UserNotFoundException("User not found with id: 42");
+        badRequest = new IdempotencyKeyException("Idempotency key was already used with a different request");
+        unexpected = new IllegalStateException("Connection reset");
+        tooComplex = new QueryTooComplexException("Query cost 1200 exceeds the limit of 1000");
+    }
+
+    @Benchmark
+    public List<GraphQLError> notFound() {
+        return handler.resolveException(notFound, env).block();
+    }
+
+    @Benchmark
+    public List<GraphQLError> badRequest() {
+        return handler.resolveException(badRequest, env).block();
+    }
+
+    @Benchmark
+    public List<GraphQLError> unexpected() {
+        return handler.resolveException(unexpected, env).block();
+    }
+
+    @Benchmark
+    public GraphQLError requestError() {
+        return handler.resolveRequestError(tooComplex);
+    }
+}
@@ -0,0 +1,97 @@
+package com.tourplanner.benchmarks;
+
+import com.tourplanner.security.AuthenticatedUser;
+import com.tourplanner.security.JwtGenerator;
+import com.tourplanner.security.SecurityConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Tokens verified per second on a single thread (one core).
+
+    legacyFilterVerification replays what JwtAuthenticationFilter used to do per request:
+    derive the key and build a parser for validateToken and again for getUserNameFromJWT.
+    parseClaimsUncached is one verification with the shared parser, parseClaimsCached is
+    the same token coming back while it sits in the verified-token cache. validateToken is
+    what JwtAuthenticationFilter calls now, on the cached path.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class JwtGeneratorBenchmark {
+    private JwtGenerator cachingGenerator;
+    private JwtGenerator uncachedGenerator;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachingGenerator = new JwtGenerator();
+        uncachedGenerator = new JwtGenerator(0);
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        AuthenticatedUser principal = new AuthenticatedUser(42L, "bench@gmail.com", "", authorities);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        token = cachingGenerator.generateToken(authentication, "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingGenerator.generateToken(authentication, "USER");
+    }
+
+    @Benchmark
+    public String legacyFilterVerification() {
+        // validateToken
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SecurityConstants.JWT_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token);
+        // getUserNameFromJWT
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SecurityConstants.JWT_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Claims parseClaimsUncached() {
+        return uncachedGenerator.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseClaimsCached() {
+        return cachingGenerator.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return cachingGenerator.validateToken(token);
+    }
+}
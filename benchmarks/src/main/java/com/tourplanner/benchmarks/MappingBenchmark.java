@@ -0,0 +1,145 @@
+package com.tourplanner.benchmarks;
+
+import com.tourplanner.dto.AdminProfileDTO;
+import com.tourplanner.dto.BookingDTO;
+import com.tourplanner.model.Booking;
+import com.tourplanner.model.Profile;
+import com.tourplanner.model.User;
+import com.tourplanner.repository.ProfileRepository;
+import com.tourplanner.service.AdminServiceImpl;
+import com.tourplanner.service.BookingServiceImpl;
+import com.tourplanner.service.ProfileBatchLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+    Entity to DTO mapping, per call (run with -prof gc for the allocation).
+
+    bookingToDto and userToAdminProfileDto are the private mappers of BookingServiceImpl and
+    AdminServiceImpl, called through a method handle. usersWithProfiles is the reactive path
+    of getAllUser for 100 users: ProfileBatchLoader pairing them with their profiles
+    (one findByUserIdIn, answered from memory here) and mapping each pair.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class MappingBenchmark {
+    private static final int USERS = 100;
+    private static final MethodHandle MAP_TO_DTO;
+    private static final MethodHandle MAP_TO_ADMIN_PROFILE_DTO;
+
+    static {
+        try {
+            MAP_TO_DTO = MethodHandles.privateLookupIn(BookingServiceImpl.class, MethodHandles.lookup())
+                    .findVirtual(BookingServiceImpl.class, "mapToDto", MethodType.methodType(BookingDTO.class, Booking.class));
+            MAP_TO_ADMIN_PROFILE_DTO = MethodHandles.privateLookupIn(AdminServiceImpl.class, MethodHandles.lookup())
+                    .findVirtual(AdminServiceImpl.class, "mapToAdminProfileDTO",
+                            MethodType.methodType(AdminProfileDTO.class, User.class, Profile.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BookingServiceImpl bookingService;
+    private AdminServiceImpl adminService;
+    private ProfileBatchLoader profileBatchLoader;
+    private Booking booking;
+    private User user;
+    private Profile profile;
+    private List<User> users;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        bookingService = new BookingServiceImpl();
+        adminService = new AdminServiceImpl();
+
+        booking = new Booking(1L, 42L, "Goa", 12000, LocalDate.of(2026, 12, 20), 2, LocalDateTime.now(), "PENDING");
+        user = new User(42L, "traveller@gmail.com", "hash", "USER", LocalDateTime.now());
+        profile = new Profile(7L, 42L, "Asha", "Rao", "123412341234", "Pune", "9876543210");
+
+        users = new ArrayList<>();
+        List<Profile> profiles = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new User(id, "user" + id + "@gmail.com", "hash", "USER", LocalDateTime.now()));
+            profiles.add(new Profile(id, id, "First" + id, "Last" + id, "123412341234", "Pune", "9876543210"));
+        }
+
+        profileBatchLoader = new ProfileBatchLoader();
+        set(profileBatchLoader, "batchSize", 500);
+        set(profileBatchLoader, "profileRepository", profileRepository(profiles));
+    }
+
+    @Benchmark
+    public BookingDTO bookingToDto() throws Throwable {
+        return (BookingDTO) MAP_TO_DTO.invokeExact(bookingService, booking);
+    }
+
+    @Benchmark
+    public AdminProfileDTO userToAdminProfileDto() throws Throwable {
+        return (AdminProfileDTO) MAP_TO_ADMIN_PROFILE_DTO.invokeExact(adminService, user, profile);
+    }
+
+    @Benchmark
+    public List<AdminProfileDTO> usersWithProfiles() {
+        return profileBatchLoader.withProfiles(Flux.fromIterable(users), this::toAdminProfileDto)
+                .collectList()
+                .block();
+    }
+
+    private AdminProfileDTO toAdminProfileDto(User user, Profile profile) {
+        try {
+            return (AdminProfileDTO) MAP_TO_ADMIN_PROFILE_DTO.invokeExact(adminService, user, profile);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // findByUserIdIn answered from the list, nothing else is called by ProfileBatchLoader
+    @SuppressWarnings("unchecked")
+    private static ProfileRepository profileRepository(List<Profile> profiles) {
+        Map<Long, Profile> byUserId = profiles.stream().collect(Collectors.toMap(Profile::getUserId, p -> p));
+        return (ProfileRepository) Proxy.newProxyInstance(ProfileRepository.class.getClassLoader(),
+                new Class<?>[]{ProfileRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByUserIdIn")) {
+                        return Flux.fromIterable((Collection<Long>) args[0]).mapNotNull(byUserId::get);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.tourplanner.benchmarks;
+
+import com.tourplanner.dto.PopularDestination;
+import com.tourplanner.model.Booking;
+import com.tourplanner.service.PopularDestinations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    popularDestinations served from PopularDestinations, filled with 30 days of bookings over
+    `destinations` destinations (a few popular ones and a long tail):
+
+        java -jar benchmarks/target/benchmarks.jar PopularDestinationsBenchmark
+
+    top is a read with nothing written since the last one (the cached ranking), topAfterWrite
+    a booking followed by a read, which merges the day summaries of the window again.
+    bookingCreated is the write alone.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class PopularDestinationsBenchmark {
+    private static final int DAYS = 30;
+
+    @Param({"20", "1000"})
+    public int destinations;
+
+    private PopularDestinations popularDestinations;
+    private Booking booking;
+
+    @Setup
+    public void setup() {
+        popularDestinations = new PopularDestinations(null, false, DAYS, 100);
+        LocalDateTime now = LocalDateTime.now();
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < destinations * 5; i++) {
+                // Destination d is booked roughly 1/(d+1) as often as the first one
+                int d = (int) Math.min(destinations - 1, Math.floor(1 / Math.random()) - 1);
+                popularDestinations.bookingCreated(booking("Destination " + d, now.minusDays(day)));
+            }
+        }
+        booking = booking("Destination 0", now);
+    }
+
+    private static Booking booking(String destination, LocalDateTime createdAt) {
+        Booking booking = new Booking();
+        booking.setDestination(destination);
+        booking.setNumberOfPeople(2);
+        booking.setCreatedAt(createdAt);
+        return booking;
+    }
+
+    @Benchmark
+    public List<PopularDestination> top() {
+        return popularDestinations.top(7, 5);
+    }
+
+    @Benchmark
+    public List<PopularDestination> topAfterWrite() {
+        popularDestinations.bookingCreated(booking);
+        return popularDestinations.top(7, 5);
+    }
+
+    @Benchmark
+    public void bookingCreated() {
+        popularDestinations.bookingCreated(booking);
+    }
+}
@@ -0,0 +1,145 @@
+package com.tourplanner.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.tourplanner.logging.MaskedEmail;
+import com.tourplanner.logging.SampledDebug;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    Logging cost of one service request, run with -prof gc to see the allocation per request
+    (gc.alloc.rate.norm):
+
+        java -jar benchmarks/target/benchmarks.jar ServiceLoggingBenchmark -prof gc
+
+    legacyRequest is what the services did per request: mask the email up front with split
+    and concatenation, then one INFO line and three DEBUG lines with it. maskedRequest is the
+    same lines with MaskedEmail. legacyRows / sampledRows are the per-row DEBUG lines of a
+    100 row list query, every row against one in SampledDebug's rate. legacyMaskEmail and
+    maskEmail are the masking alone.
+
+    The level is a parameter: INFO is the shipped configuration, DEBUG the old one.
+    Written events go to an appender that only formats the message, so the numbers are the
+    cost on the calling thread (what AsyncAppender leaves there), not console I/O.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class ServiceLoggingBenchmark {
+    private static final int ROWS = 100;
+
+    @Param({"INFO", "DEBUG"})
+    public String level;
+
+    private Logger log;
+    private SampledDebug sampledRows;
+    private String email;
+    private Long[] rowIds;
+
+    @Setup
+    public void setup() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        FormattingAppender appender = new FormattingAppender();
+        appender.setContext(context);
+        appender.start();
+
+        log = context.getLogger("com.tourplanner.benchmarks.service");
+        log.detachAndStopAllAppenders();
+        log.setAdditive(false);
+        log.addAppender(appender);
+        log.setLevel(Level.toLevel(level));
+
+        sampledRows = SampledDebug.every(100, log);
+        email = "traveller@gmail.com";
+        rowIds = new Long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rowIds[i] = 1000L + i;
+        }
+    }
+
+    @Benchmark
+    public int legacyRequest() {
+        String maskedEmail = legacyMask(email);
+        log.info("Fetching user profile for email: {}", maskedEmail);
+        log.debug("Started searching user profile in DB for {}", maskedEmail);
+        log.debug("User found with ID: {}", rowIds[0]);
+        log.debug("Successfully mapped profile for {}", maskedEmail);
+        return maskedEmail.length();
+    }
+
+    @Benchmark
+    public Object maskedRequest() {
+        MaskedEmail maskedEmail = MaskedEmail.of(email);
+        log.info("Fetching user profile for email: {}", maskedEmail);
+        log.debug("Started searching user profile in DB for {}", maskedEmail);
+        log.debug("User found with ID: {}", rowIds[0]);
+        log.debug("Successfully mapped profile for {}", maskedEmail);
+        return maskedEmail;
+    }
+
+    @Benchmark
+    public int legacyRows() {
+        for (Long id : rowIds) {
+            log.debug("Booking found with ID: {} for userId: {}", id, id);
+        }
+        return rowIds.length;
+    }
+
+    @Benchmark
+    public int sampledRows() {
+        for (Long id : rowIds) {
+            if (sampledRows.isEnabled()) log.debug("Booking found with ID: {} for userId: {}", id, id);
+        }
+        return rowIds.length;
+    }
+
+    @Benchmark
+    public String legacyMaskEmail() {
+        return legacyMask(email);
+    }
+
+    @Benchmark
+    public String maskEmail() {
+        return MaskedEmail.mask(email);
+    }
+
+    // The maskEmail the services used to carry
+    private static String legacyMask(String email) {
+        if (email == null || !email.contains("@")) return "hidden";
+        String[] parts = email.split("@");
+        String name = parts[0];
+        if (name.length() <= 2) return "***@" + parts[1];
+        return name.charAt(0) + "***@" + parts[1];
+    }
+
+    private static class FormattingAppender extends AppenderBase<ILoggingEvent> {
+        int length;
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            length += event.getFormattedMessage().length();
+        }
+    }
+}
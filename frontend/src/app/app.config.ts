@@ -4,9 +4,18 @@ import { provideHttpClient, withFetch, withInterceptorsFromDi } from '@angular/c
 import { provideApollo } from 'apollo-angular';
 import { HttpLink } from 'apollo-angular/http';
 import { InMemoryCache } from '@apollo/client';
+import { PersistedQueryLink } from '@apollo/client/link/persisted-queries';
+import { RetryLink } from '@apollo/client/link/retry';
+import { getMainDefinition } from '@apollo/client/utilities';
 
 import { routes } from './app.routes';
 
+// Hex SHA-256 of the query text, the id the backend stores persisted queries under
+async function sha256(query: string): Promise<string> {
+  const digest = await crypto.subtle.digest('SHA-256', new TextEncoder().encode(query));
+  return Array.from(new Uint8Array(digest), b => b.toString(16).padStart(2, '0')).join('');
+}
+
 export const appConfig: ApplicationConfig = {
   providers: [
     provideZoneChangeDetection({ eventCoalescing: true }),
@@ -17,9 +26,23 @@ export const appConfig: ApplicationConfig = {
     ),
     provideApollo(() => {
       const httpLink = inject(HttpLink);
+      // Sends only the query hash; the full text is sent once when the server doesn't know it yet
+      const persistedQueryLink = new PersistedQueryLink({ sha256 });
+      // Network failures are retried for queries, and for mutations only when they carry an idempotency key
+      const retryLink = new RetryLink({
+        delay: { initial: 300, max: 3000, jitter: true },
+        attempts: {
+          max: 3,
+          retryIf: (error, operation) => {
+            const definition = getMainDefinition(operation.query);
+            const isMutation = definition.kind === 'OperationDefinition' && definition.operation === 'mutation';
+            return !!error && (!isMutation || !!operation.variables['idempotencyKey']);
+          }
+        }
+      });
 
       return {
-        link: httpLink.create({ uri: '/graphql' }),
+        link: retryLink.concat(persistedQueryLink).concat(httpLink.create({ uri: '/graphql' })),
         cache: new InMemoryCache(),
         // other options...
       };
@@ -1,8 +1,10 @@
 import { CommonModule } from '@angular/common';
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { BookingService } from '../../services/BookingService';
 import { UserService } from '../../services/UserService';
+import { BookingSubscriptionService } from '../../services/BookingSubscriptionService';
+import { Subscription } from 'rxjs';
 import { Apollo, gql } from 'apollo-angular';
 
 @Component({
@@ -11,11 +13,16 @@ import { Apollo, gql } from 'apollo-angular';
   templateUrl: './admin-dashboard-user-booking.component.html',
   styleUrl: './admin-dashboard-user-booking.component.css'
 })
-export class AdminDashboardUserBookingComponent implements OnInit {
+export class AdminDashboardUserBookingComponent implements OnInit, OnDestroy {
   bookings: any[] = [];
   selectedBooking: any = null;
+  hasNextPage = false;
+  private endCursor: string | null = null;
+  private readonly pageSize = 20;
+  private bookingCreated?: Subscription;
 
-  constructor(private http: HttpClient, private bookingService: BookingService, private userService: UserService, private apollo: Apollo) { }
+  constructor(private http: HttpClient, private bookingService: BookingService, private userService: UserService,
+              private apollo: Apollo, private bookingSubscriptionService: BookingSubscriptionService) { }
 
   ngOnInit(): void {
     this.loadBookings();
@@ -27,22 +34,51 @@ export class AdminDashboardUserBookingComponent implements OnInit {
     this.userService.usersChanged$.subscribe(() => {
       this.loadBookings();
     });
+
+    // New bookings are pushed by the server, newest first so they go on top of the list
+    this.bookingCreated = this.bookingSubscriptionService.bookingCreated().subscribe({
+      next: (booking: any) => {
+        this.bookings = [booking, ...this.bookings];
+      },
+      error: (err) => {
+        console.error('Booking subscription failed:', err);
+      }
+    });
+  }
+
+  ngOnDestroy(): void {
+    this.bookingCreated?.unsubscribe();
   }
 
   loadBookings(): void {
+    this.bookings = [];
+    this.endCursor = null;
+    this.fetchPage();
+  }
+
+  loadMore(): void {
+    this.fetchPage();
+  }
+
+  // One page at a time (newest first), "Load more" continues after the last cursor
+  private fetchPage(): void {
     const token = localStorage.getItem('authToken');
 
-    const GET_ALL_BOOKINGS = gql`
-    query GetAllBookings {
-      getAllBookings {
-        bookingId
-        userId
-        destination
-        rate
-        bookingDate
-        numberOfPeople
-        createdAt
-        status
+    const GET_BOOKINGS = gql`
+    query GetBookings($first: Int, $after: String) {
+      bookings(first: $first, after: $after) {
+        edges {
+          node {
+            bookingId
+            userId
+            destination
+            status
+          }
+        }
+        pageInfo {
+          hasNextPage
+          endCursor
+        }
       }
     }
   `;
@@ -50,7 +86,8 @@ export class AdminDashboardUserBookingComponent implements OnInit {
     if (token) {
       this.apollo
         .query({
-          query: GET_ALL_BOOKINGS,
+          query: GET_BOOKINGS,
+          variables: { first: this.pageSize, after: this.endCursor },
           context: {
             headers: new HttpHeaders({
               Authorization: `Bearer ${token}`
@@ -60,12 +97,15 @@ export class AdminDashboardUserBookingComponent implements OnInit {
         })
         .subscribe({
           next: (result: any) => {
-            this.bookings = result.data.getAllBookings.map((b: any) => ({
-              bookingId: b.bookingId,
-              userId: b.userId,
-              destination: b.destination,
-              status: b.status
-            }));
+            const page = result.data.bookings;
+            this.bookings = this.bookings.concat(page.edges.map((edge: any) => ({
+              bookingId: edge.node.bookingId,
+              userId: edge.node.userId,
+              destination: edge.node.destination,
+              status: edge.node.status
+            })));
+            this.hasNextPage = page.pageInfo.hasNextPage;
+            this.endCursor = page.pageInfo.endCursor;
           },
           error: (err) => {
             console.error('Error fetching bookings:', err);
@@ -21,6 +21,10 @@ export class BookingFormComponent {
 
   locations: string[] = ['Goa', 'Mysore', 'Shimoga', 'Ooty'];
 
+  // Same key while the same booking is resubmitted, so a retry can't book twice
+  private idempotencyKey: string | null = null;
+  private lastSubmitted: string | null = null;
+
   priceMap: Record<string, string> = {
     Goa: '18000',
     Mysore: '12000',
@@ -53,9 +57,15 @@ export class BookingFormComponent {
     return;
   }
 
+  const submitted = JSON.stringify(bookingData);
+  if (!this.idempotencyKey || submitted !== this.lastSubmitted) {
+    this.idempotencyKey = crypto.randomUUID();
+    this.lastSubmitted = submitted;
+  }
+
   const CREATE_BOOKING = gql`
-    mutation CreateBooking($bookingDTO: BookingInput!) {
-      createBooking(bookingDTO: $bookingDTO) {
+    mutation CreateBooking($bookingDTO: BookingInput!, $idempotencyKey: String) {
+      createBooking(bookingDTO: $bookingDTO, idempotencyKey: $idempotencyKey) {
         destination
         rate
         bookingDate
@@ -67,7 +77,8 @@ export class BookingFormComponent {
   this.apollo.mutate({
     mutation: CREATE_BOOKING,
     variables: {
-      bookingDTO: bookingData
+      bookingDTO: bookingData,
+      idempotencyKey: this.idempotencyKey
     },
     context: {
       headers: new HttpHeaders({
@@ -77,6 +88,7 @@ export class BookingFormComponent {
   }).subscribe({
     next: (res: any) => {
       console.log('Booking created successfully:', res);
+      this.idempotencyKey = null;
       alert('Booking created successfully!');
     },
     error: (err) => {
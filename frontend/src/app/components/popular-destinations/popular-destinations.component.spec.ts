@@ -1,4 +1,5 @@
 import { ComponentFixture, TestBed } from '@angular/core/testing';
+import { ApolloTestingModule } from 'apollo-angular/testing';
 
 import { PopularDestinationsComponent } from './popular-destinations.component';
 
@@ -8,7 +9,7 @@ describe('PopularDestinationsComponent', () => {
 
   beforeEach(async () => {
     await TestBed.configureTestingModule({
-      imports: [PopularDestinationsComponent]
+      imports: [PopularDestinationsComponent, ApolloTestingModule]
     })
     .compileComponents();
 
@@ -1,5 +1,13 @@
 import { CommonModule } from '@angular/common';
-import { Component } from '@angular/core';
+import { Component, OnInit } from '@angular/core';
+import { Apollo } from 'apollo-angular';
+import { gql } from '@apollo/client/core';
+
+interface Destination {
+  title: string;
+  price: number;
+  image: string;
+}
 
 @Component({
   selector: 'app-popular-destinations',
@@ -7,8 +15,9 @@ import { Component } from '@angular/core';
   templateUrl: './popular-destinations.component.html',
   styleUrl: './popular-destinations.component.css'
 })
-export class PopularDestinationsComponent {
-  destinations = [
+export class PopularDestinationsComponent implements OnInit {
+  // Shown in this order until the ranking arrives, or if it can't be loaded
+  destinations: Destination[] = [
     {
       title: 'Goa',
       price: 18000,
@@ -30,4 +39,34 @@ export class PopularDestinationsComponent {
       image: 'assets/trips/shimoga.png'
     }
   ];
+
+  constructor(private apollo: Apollo) {}
+
+  ngOnInit() {
+    const POPULAR_DESTINATIONS = gql`
+      query PopularDestinations($window: Int, $k: Int) {
+        popularDestinations(window: $window, k: $k) {
+          destination
+          travellers
+        }
+      }
+    `;
+
+    this.apollo.query<{ popularDestinations: { destination: string; travellers: number }[] }>({
+      query: POPULAR_DESTINATIONS,
+      variables: { window: 30, k: 10 },
+      fetchPolicy: 'no-cache'
+    }).subscribe({
+      next: (result) => {
+        const ranking = (result.data?.popularDestinations ?? []).map(d => d.destination.toLowerCase());
+        // Most booked first; destinations nobody booked lately keep their place after them
+        const rank = (destination: Destination) => {
+          const index = ranking.indexOf(destination.title.toLowerCase());
+          return index < 0 ? ranking.length : index;
+        };
+        this.destinations = [...this.destinations].sort((a, b) => rank(a) - rank(b));
+      },
+      error: (err) => console.error('Failed to fetch popular destinations', err)
+    });
+  }
 }
@@ -1,4 +1,4 @@
-import { Component } from '@angular/core';
+import { Component, OnDestroy } from '@angular/core';
 import { HttpClient} from '@angular/common/http';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
@@ -6,6 +6,8 @@ import { RouterLink, RouterLinkActive, RouterModule} from '@angular/router';
 import { Apollo } from 'apollo-angular';
 import { gql } from '@apollo/client/core';
 import { HttpHeaders } from '@angular/common/http';
+import { Subscription } from 'rxjs';
+import { BookingSubscriptionService } from '../../services/BookingSubscriptionService';
 
 interface Booking {
   bookingId: number;
@@ -23,15 +25,31 @@ interface Booking {
   templateUrl: './user-profile-destination.component.html',
   styleUrl: './user-profile-destination.component.css'
 })
-export class UserProfileDestinationComponent {
+export class UserProfileDestinationComponent implements OnDestroy {
   bookings: Booking[] = [];
   token: string | null = null;
+  private statusChanges?: Subscription;
 
-  constructor(private http: HttpClient, private apollo: Apollo) {}
+  constructor(private http: HttpClient, private apollo: Apollo, private bookingSubscriptionService: BookingSubscriptionService) {}
 
   ngOnInit() {
     this.token = localStorage.getItem('authToken');
     this.fetchBookings();
+
+    // Approvals / cancellations are pushed by the server instead of reloading the list
+    this.statusChanges = this.bookingSubscriptionService.bookingStatusChanged().subscribe({
+      next: (changed: any) => {
+        this.bookings = this.bookings.map(booking =>
+          String(booking.bookingId) === String(changed.bookingId) ? { ...booking, status: changed.status } : booking);
+      },
+      error: (err) => {
+        console.error('Booking status subscription failed:', err);
+      }
+    });
+  }
+
+  ngOnDestroy() {
+    this.statusChanges?.unsubscribe();
   }
 
   fetchBookings() {
@@ -19,6 +19,10 @@ export class UserRegisterComponent {
   phoneNumber = '';
   city = '';
 
+  // Same key while the same form is resubmitted, so a retry doesn't hit "Email already registered"
+  private idempotencyKey: string | null = null;
+  private lastSubmitted: string | null = null;
+
   constructor(private authService: AuthService, private router: Router) {}
 
   onSubmit(form: any) {
@@ -37,7 +41,13 @@ export class UserRegisterComponent {
       city: this.city
     };
 
-    this.authService.register(userRegisterDTO).subscribe({
+    const submitted = JSON.stringify(userRegisterDTO);
+    if (!this.idempotencyKey || submitted !== this.lastSubmitted) {
+      this.idempotencyKey = crypto.randomUUID();
+      this.lastSubmitted = submitted;
+    }
+
+    this.authService.register(userRegisterDTO, this.idempotencyKey).subscribe({
       next: (response) => {
         if (response.registerUser) {
           alert('Registration successful!');
@@ -0,0 +1,74 @@
+import { Injectable } from '@angular/core';
+import { Observable, retry } from 'rxjs';
+
+/*
+  Booking pushes from the backend's GraphQL subscriptions, over the graphql-transport-ws protocol on /graphql.
+  Browsers can't set headers on the WebSocket handshake, so the JWT is sent in connection_init.
+  Every subscriber gets its own socket, closed again on unsubscribe; dropped connections are retried.
+*/
+@Injectable({ providedIn: 'root' })
+export class BookingSubscriptionService {
+
+  // Status updates of the logged in user's bookings
+  bookingStatusChanged(): Observable<any> {
+    return this.subscribe('subscription BookingStatusChanged { bookingStatusChanged { bookingId status } }', 'bookingStatusChanged');
+  }
+
+  // Every new booking (admin only)
+  bookingCreated(): Observable<any> {
+    return this.subscribe('subscription BookingCreated { bookingCreated { bookingId userId destination status } }', 'bookingCreated');
+  }
+
+  private subscribe(query: string, field: string): Observable<any> {
+    return new Observable<any>(observer => {
+      const token = localStorage.getItem('authToken');
+      const protocol = location.protocol === 'https:' ? 'wss' : 'ws';
+      const socket = new WebSocket(`${protocol}://${location.host}/graphql`, 'graphql-transport-ws');
+
+      socket.onopen = () => {
+        socket.send(JSON.stringify({ type: 'connection_init', payload: { Authorization: `Bearer ${token}` } }));
+      };
+
+      socket.onmessage = (event) => {
+        const message = JSON.parse(event.data);
+        switch (message.type) {
+          case 'connection_ack':
+            socket.send(JSON.stringify({ id: '1', type: 'subscribe', payload: { query } }));
+            break;
+          case 'next':
+            if (message.payload.errors) {
+              observer.error(message.payload.errors);
+            } else {
+              observer.next(message.payload.data[field]);
+            }
+            break;
+          case 'error':
+            observer.error(message.payload);
+            break;
+          case 'complete':
+            observer.complete();
+            break;
+          case 'ping':
+            socket.send(JSON.stringify({ type: 'pong' }));
+            break;
+        }
+      };
+
+      socket.onclose = (event) => {
+        if (event.code === 1000) {
+          observer.complete();
+        } else {
+          observer.error(new Error(`Subscription socket closed: ${event.code} ${event.reason}`));
+        }
+      };
+
+      return () => {
+        socket.onclose = null;
+        if (socket.readyState === WebSocket.OPEN) {
+          socket.send(JSON.stringify({ id: '1', type: 'complete' }));
+        }
+        socket.close(1000);
+      };
+    }).pipe(retry({ count: 10, delay: 5000 }));
+  }
+}
@@ -11,10 +11,11 @@ export class AuthService {
 
   constructor(private apollo: Apollo) {}
 
-  register(userRegisterDTO: any): Observable<any> {
+  // idempotencyKey: reuse it when the same registration is submitted again
+  register(userRegisterDTO: any, idempotencyKey?: string): Observable<any> {
     const REGISTER_MUTATION = gql`
-      mutation RegisterUser($userRegisterDTO: UserRegisterDTO!) {
-        registerUser(userRegisterDTO: $userRegisterDTO) {
+      mutation RegisterUser($userRegisterDTO: UserRegisterDTO!, $idempotencyKey: String) {
+        registerUser(userRegisterDTO: $userRegisterDTO, idempotencyKey: $idempotencyKey) {
           email
           firstName
           lastName
@@ -27,7 +28,7 @@ export class AuthService {
 
     return this.apollo.mutate({
       mutation: REGISTER_MUTATION,
-      variables: { userRegisterDTO }
+      variables: { userRegisterDTO, idempotencyKey }
     }).pipe(map((result: any) => result.data));
   }
 